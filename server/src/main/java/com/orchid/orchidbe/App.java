@@ -6,11 +6,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.orchid.orchidbe.repositories")
 @EntityScan(basePackages = "com.orchid.orchidbe.domain")
+@EnableScheduling
 public class App {
 
     public static void main(String[] args) {
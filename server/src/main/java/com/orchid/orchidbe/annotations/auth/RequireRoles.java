@@ -0,0 +1,22 @@
+package com.orchid.orchidbe.annotations.auth;
+
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts an endpoint to callers holding one of the given roles. Checked by
+ * {@code RoleAuthorizationManager} as a bit test, use it instead of
+ * {@code @PreAuthorize("hasAnyRole(...)")} which evaluates SpEL on every call.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequireRoles {
+
+    RoleName[] value();
+
+}
@@ -0,0 +1,190 @@
+package com.orchid.orchidbe.components;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded read-through cache for the public catalog (orchids and categories).
+ * <p>
+ * Every write to the catalog removes the keys it affects and bumps {@link #version()}. A load
+ * that started before a write is returned to its caller but not stored, so a slow read can never
+ * put pre-write data back into the cache. Entries also expire after {@code catalog.cache.ttl},
+ * which bounds staleness when another node did the write.
+ * <p>
+ * {@link #getVersioned} also returns HTTP validators for the value. The ETag is a digest of its
+ * JSON, so every node hands out the same one for the same data and a reload that finds nothing
+ * changed keeps it. Last-Modified is when this node first saw the current digest, it only moves
+ * when the data does.
+ * <p>
+ * Cached values are shared between requests and must be treated as read-only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    /**
+     * A value with validators derived from its content.
+     */
+    public record Versioned<T>(T value, String etag, long lastModified) {
+
+    }
+
+    private record Entry(Versioned<?> versioned, long expiresAt) {
+
+        // Kept instead of removed so the next load can tell whether the data really changed
+        Entry expired() {
+            return new Entry(versioned, Long.MIN_VALUE);
+        }
+    }
+
+    private static final int ETAG_BYTES = 16;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalog.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.cache.max-entries:10000}")
+    private int maxEntries;
+
+    // Zero keeps entries until the next write
+    @Value("${catalog.cache.ttl:PT10M}")
+    private Duration ttl;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong(1);
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("catalog.cache.requests")
+            .tag("result", "hit")
+            .description("Catalog cache lookups")
+            .register(meterRegistry);
+        misses = Counter.builder("catalog.cache.requests")
+            .tag("result", "miss")
+            .description("Catalog cache lookups")
+            .register(meterRegistry);
+        evictions = Counter.builder("catalog.cache.evictions")
+            .description("Entries dropped because the cache was full")
+            .register(meterRegistry);
+        Gauge.builder("catalog.cache.size", entries, Map::size)
+            .register(meterRegistry);
+        Gauge.builder("catalog.version", version, AtomicLong::get)
+            .description("Incremented on every catalog write")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Monotonically increasing, changes whenever anything in the catalog may have changed.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public <T> T get(String key, Supplier<T> loader) {
+        return getVersioned(key, loader).value();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Versioned<T> getVersioned(String key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        if (!enabled) {
+            return versioned(loader.get(), null, now);
+        }
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() >= now) {
+            hits.increment();
+            return (Versioned<T>) entry.versioned();
+        }
+        misses.increment();
+
+        long loadedAt = version.get();
+        Versioned<T> versioned = versioned(loader.get(), entry, now);
+        if (versioned.value() != null) {
+            put(key, versioned, now);
+            // A write raced with the load, the value may already be stale
+            if (version.get() != loadedAt) {
+                entries.computeIfPresent(key, (k, stale) -> stale.expired());
+            }
+        }
+        return versioned;
+    }
+
+    private <T> Versioned<T> versioned(T value, Entry previous, long now) {
+        String etag = etag(value);
+        if (previous != null && previous.versioned().etag().equals(etag)) {
+            return new Versioned<>(value, etag, previous.versioned().lastModified());
+        }
+        return new Versioned<>(value, etag, now);
+    }
+
+    private String etag(Object value) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            try (var out = new DigestOutputStream(OutputStream.nullOutputStream(), sha256)) {
+                objectMapper.writeValue(out, value);
+            }
+            return HexFormat.of().formatHex(sha256.digest(), 0, ETAG_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Call after the write has been committed.
+     */
+    public void invalidate(String... keys) {
+        version.incrementAndGet();
+        for (String key : keys) {
+            entries.computeIfPresent(key, (k, entry) -> entry.expired());
+        }
+    }
+
+    private void put(String key, Versioned<?> versioned, long now) {
+        if (entries.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        long expiresAt = ttl.isZero() ? Long.MAX_VALUE : now + ttl.toMillis();
+        entries.put(key, new Entry(versioned, expiresAt));
+    }
+
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() < now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+        log.debug("Catalog cache trimmed to {} entries", entries.size());
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.orchid.orchidbe.components;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catalog responses rendered to JSON once per cache load, together with their compressed
+ * encodings. A hot read then writes prebuilt bytes and costs no Jackson or deflate work.
+ * <p>
+ * Snapshots are keyed by the {@link Versioned#etag()} of the value they were built from, so
+ * changed data is picked up on the next request and a reload that changed nothing is not
+ * rendered again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshots {
+
+    public enum Encoding {
+        IDENTITY(null, ""),
+        GZIP("gzip", "-gzip");
+
+        private final String contentEncoding;
+        private final String etagSuffix;
+
+        Encoding(String contentEncoding, String etagSuffix) {
+            this.contentEncoding = contentEncoding;
+            this.etagSuffix = etagSuffix;
+        }
+
+        /**
+         * Every encoding is its own representation and needs its own strong ETag.
+         */
+        public String etag(Versioned<?> versioned) {
+            return versioned.etag() + etagSuffix;
+        }
+
+        public static Encoding negotiate(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return IDENTITY;
+            }
+            Double gzip = null;
+            Double any = null;
+            for (String part : acceptEncoding.split(",")) {
+                String[] params = part.split(";");
+                String coding = params[0].trim();
+                if ("gzip".equalsIgnoreCase(coding)) {
+                    gzip = quality(params);
+                } else if ("*".equals(coding)) {
+                    any = quality(params);
+                }
+            }
+            // The wildcard only covers codings not listed, "gzip;q=0, *" still refuses gzip
+            Double quality = gzip != null ? gzip : any;
+            return quality != null && quality > 0 ? GZIP : IDENTITY;
+        }
+
+        private static double quality(String[] params) {
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+    }
+
+    public static final class Snapshot {
+
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Snapshot(String etag, byte[] json, byte[] gzip) {
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        // The arrays are never modified after construction, so they are handed out as is
+        public ResponseEntity<byte[]> toResponse(Encoding encoding) {
+            var response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+            if (encoding == Encoding.GZIP) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, encoding.contentEncoding)
+                    .contentLength(gzip.length)
+                    .body(gzip);
+            }
+            return response.contentLength(json.length).body(json);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Snapshot> latest = new ConcurrentHashMap<>();
+
+    /**
+     * @param name identifies the endpoint, one snapshot is kept per name
+     * @param body builds the response body from the cached value, only called on a re-render
+     */
+    public <T> Snapshot get(String name, Versioned<T> versioned, Function<T, ?> body) {
+        Snapshot snapshot = latest.get(name);
+        if (snapshot != null && snapshot.etag.equals(versioned.etag())) {
+            return snapshot;
+        }
+        snapshot = render(versioned.etag(), body.apply(versioned.value()));
+        latest.put(name, snapshot);
+        log.debug("Rendered catalog snapshot {} ({} bytes, {} gzipped)",
+                  name, snapshot.json.length, snapshot.gzip.length);
+        return snapshot;
+    }
+
+    private Snapshot render(String etag, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Snapshot(etag, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot render catalog snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        var out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.orchid.orchidbe.components;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers revocations synchronously to the listeners of this JVM. Enough for a single node and
+ * for tests, multi-node deployments should use {@link PostgresRevocationEventBus}.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.revocation-bus.type", havingValue = "in-process",
+                       matchIfMissing = true)
+public class InProcessRevocationEventBus implements RevocationEventBus {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(RevocationEvent event) {
+        for (Listener listener : listeners) {
+            listener.onRevoked(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+}
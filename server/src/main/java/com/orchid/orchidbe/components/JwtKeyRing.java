@@ -0,0 +1,241 @@
+package com.orchid.orchidbe.components;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signing keys addressed by key id ({@code kid} in the JWT header).
+ * <p>
+ * New tokens are signed with the active key, verification picks the key named by the token, so
+ * a secret can be rotated without logging anyone out:
+ * <ol>
+ *   <li>add the new key to {@code jwt.key-ring.keys} on every node,</li>
+ *   <li>switch {@code jwt.key-ring.active-kid} to it,</li>
+ *   <li>drop the old key once tokens signed with it have expired.</li>
+ * </ol>
+ * When no ring is configured the legacy {@code jwt.secretKey} is used under {@link #DEFAULT_KID}.
+ * Tokens issued before key ids existed carry no {@code kid} and are verified with that key too.
+ * <p>
+ * With {@code jwt.algorithm: ES256} new tokens are signed with an EC P-256 private key instead,
+ * and the public half is published as a JWK set ({@link #getJwks()}) so other services can verify
+ * our tokens locally. The HMAC keys stay in the ring for verification only, so tokens issued
+ * before the switch remain valid until they expire.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    public static final String DEFAULT_KID = "default";
+
+    @Value("${jwt.secretKey}")
+    private String secretKey;
+
+    // kid:base64secret pairs separated by commas, e.g. "2025-01:AbC...,2025-06:XyZ..."
+    @Value("${jwt.key-ring.keys:}")
+    private String keys;
+
+    @Value("${jwt.key-ring.active-kid:}")
+    private String configuredActiveKid;
+
+    @Value("${jwt.algorithm:HS256}")
+    private SignatureAlgorithm algorithm;
+
+    @Value("${jwt.ec.kid:ec-1}")
+    private String ecKid;
+
+    // Base64 DER: PKCS#8 for the private key, X.509 SubjectPublicKeyInfo for the public key
+    @Value("${jwt.ec.private-key:}")
+    private String ecPrivateKey;
+
+    @Value("${jwt.ec.public-key:}")
+    private String ecPublicKey;
+
+    // Public keys of retired EC key pairs, "kid:base64,kid2:base64", still accepted and published
+    @Value("${jwt.ec.previous-public-keys:}")
+    private String ecPreviousPublicKeys;
+
+    // Materialized once, verification is a map lookup plus one MAC or signature check
+    private final Map<String, Key> keysById = new LinkedHashMap<>();
+
+    @Getter
+    private String activeKid;
+
+    @Getter
+    private SignatureAlgorithm signatureAlgorithm;
+
+    private Key signingKey;
+
+    @Getter
+    private JwtParser parser;
+
+    /**
+     * JWK set of the EC public keys, built once at startup. Empty in HMAC mode since shared
+     * secrets must never be published.
+     */
+    @Getter
+    private Map<String, Object> jwks;
+
+    @PostConstruct
+    void init() {
+        if (StringUtils.isNotBlank(secretKey)) {
+            addKey(DEFAULT_KID, hmacKey(secretKey));
+        }
+        for (String entry : StringUtils.split(StringUtils.defaultString(keys), ',')) {
+            String kid = StringUtils.substringBefore(entry, ":").trim();
+            String secret = StringUtils.substringAfter(entry, ":").trim();
+            if (kid.isEmpty() || secret.isEmpty()) {
+                throw new IllegalStateException(
+                    "Invalid jwt.key-ring.keys entry, expected kid:secret");
+            }
+            addKey(kid, hmacKey(secret));
+        }
+
+        List<Map<String, Object>> publishedKeys = new ArrayList<>();
+        switch (algorithm) {
+            case HS256 -> {
+                activeKid = StringUtils.defaultIfBlank(configuredActiveKid, DEFAULT_KID);
+                if (!keysById.containsKey(activeKid)) {
+                    throw new IllegalStateException(
+                        "No JWT signing key configured for kid " + activeKid);
+                }
+                signingKey = keysById.get(activeKid);
+            }
+            case ES256 -> {
+                if (StringUtils.isBlank(ecKid)) {
+                    throw new IllegalStateException("jwt.ec.kid must not be empty");
+                }
+                KeyPair keyPair = loadEcKeyPair();
+                activeKid = ecKid;
+                signingKey = keyPair.getPrivate();
+                addKey(ecKid, keyPair.getPublic());
+                publishedKeys.add(toJwk(ecKid, (ECPublicKey) keyPair.getPublic()));
+
+                for (String entry : StringUtils.split(
+                    StringUtils.defaultString(ecPreviousPublicKeys), ',')) {
+                    String kid = StringUtils.substringBefore(entry, ":").trim();
+                    String base64 = StringUtils.substringAfter(entry, ":").trim();
+                    if (kid.isEmpty() || base64.isEmpty()) {
+                        throw new IllegalStateException(
+                            "Invalid jwt.ec.previous-public-keys entry, expected kid:base64");
+                    }
+                    PublicKey publicKey = ecPublicKey(base64);
+                    addKey(kid, publicKey);
+                    publishedKeys.add(toJwk(kid, (ECPublicKey) publicKey));
+                }
+            }
+            default -> throw new IllegalStateException(
+                "Unsupported jwt.algorithm " + algorithm + ", expected HS256 or ES256");
+        }
+        signatureAlgorithm = algorithm;
+        jwks = Map.of("keys", List.copyOf(publishedKeys));
+
+        parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header.getKeyId());
+                }
+            })
+            .build();
+        log.info("JWT key ring loaded with key ids {}, signing with {} ({})",
+                 keysById.keySet(), activeKid, algorithm);
+    }
+
+    // A kid names one key of one algorithm, a second key under it would swap what verifies it
+    private void addKey(String kid, Key key) {
+        if (keysById.putIfAbsent(kid, key) != null) {
+            throw new IllegalStateException("Duplicate JWT key id " + kid);
+        }
+    }
+
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    private Key verificationKey(String kid) {
+        Key key = keysById.get(kid == null ? DEFAULT_KID : kid);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + kid);
+        }
+        return key;
+    }
+
+    private static Key hmacKey(String base64Secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+    }
+
+    private KeyPair loadEcKeyPair() {
+        if (StringUtils.isBlank(ecPrivateKey) || StringUtils.isBlank(ecPublicKey)) {
+            // Fine for a single node, but every restart invalidates the tokens it issued
+            log.warn("jwt.ec.private-key/public-key not set, generating an ephemeral ES256 key pair");
+            return Keys.keyPairFor(SignatureAlgorithm.ES256);
+        }
+        try {
+            PrivateKey privateKey = KeyFactory.getInstance("EC")
+                .generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(ecPrivateKey)));
+            return new KeyPair(ecPublicKey(ecPublicKey), privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid jwt.ec.private-key", e);
+        }
+    }
+
+    private static PublicKey ecPublicKey(String base64) {
+        try {
+            return KeyFactory.getInstance("EC")
+                .generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(base64)));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Invalid EC public key for the JWT key ring", e);
+        }
+    }
+
+    // RFC 7518 section 6.2: affine coordinates as unsigned, fixed length, base64url
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+        jwk.put("x", base64Url(publicKey.getW().getAffineX()));
+        jwk.put("y", base64Url(publicKey.getW().getAffineY()));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    private static String base64Url(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, fixed.length);
+        System.arraycopy(bytes, bytes.length - length, fixed, fixed.length - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+}
@@ -7,19 +7,19 @@ import com.orchid.orchidbe.exceptions.JwtAuthenticationException;
 import com.orchid.orchidbe.repositories.TokenRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Encoders;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import java.security.Key;
 import java.security.SecureRandom;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -32,6 +32,8 @@ import org.springframework.stereotype.Component;
 public class JwtTokenUtils {
 
     private final TokenRepository tokenRepository;
+    private final TokenRevocationIndex revocationIndex;
+    private final JwtKeyRing keyRing;
 
     @Value("${jwt.expiration}")
     private int expiration; //save to an environment variable
@@ -39,8 +41,10 @@ public class JwtTokenUtils {
     @Value("${jwt.expiration-refresh-token}")
     private int expirationRefreshToken;
 
-    @Value("${jwt.secretKey}")
-    private String secretKey;
+    // When enabled the filter trusts the role and account id signed into the token
+    // instead of loading the account on every request
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtils.class);
 
     //    private final TokenRepository tokenRepository;
@@ -50,12 +54,18 @@ public class JwtTokenUtils {
         //this.generateSecretKey();
         claims.put("email", user.getEmail());
         claims.put("userId", user.getId());
+        if (user.getRole() != null) {
+            claims.put("role", user.getRole().getName().name());
+        }
         try {
             String token = Jwts.builder()
                 .setClaims(claims) //how to extract claims from this ?
                 .setSubject(user.getEmail())
+                // Unique id so two logins in the same second never yield the same token (and digest)
+                .setId(UUID.randomUUID().toString())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000L))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
+                .signWith(getSignInKey(), keyRing.getSignatureAlgorithm())
                 .compact();
             return token;
         } catch (Exception e) {
@@ -66,9 +76,8 @@ public class JwtTokenUtils {
     }
 
     private Key getSignInKey() {
-        byte[] bytes = Decoders.BASE64.decode(secretKey);
         //Keys.hmacShaKeyFor(Decoders.BASE64.decode("TaqlmGv1iEDMRiFp/pHuID1+T84IABfuA0xXh4GhiUI="));
-        return Keys.hmacShaKeyFor(bytes);
+        return keyRing.signingKey();
     }
 
     private String generateSecretKey() {
@@ -80,13 +89,47 @@ public class JwtTokenUtils {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSignInKey())
-            .build()
+        // The key ring resolves the verification key from the kid header
+        return keyRing.getParser()
             .parseClaimsJws(token)
             .getBody();
     }
 
+    /**
+     * Checks the signature and expiration of the token exactly once and returns its claims.
+     * Everything downstream of {@code JwtTokenFilter} should work with the returned object
+     * rather than the raw token string.
+     */
+    public VerifiedJwt verify(String token) {
+        try {
+            return new VerifiedJwt(token, extractAllClaims(token));
+        } catch (ExpiredJwtException e) {
+            throw new JwtAuthenticationException("JWT token has expired");
+        } catch (MalformedJwtException e) {
+            throw new JwtAuthenticationException("Invalid JWT token format");
+        } catch (UnsupportedJwtException e) {
+            throw new JwtAuthenticationException("Unsupported JWT token");
+        } catch (IllegalArgumentException e) {
+            throw new JwtAuthenticationException("JWT claims string is empty");
+        } catch (JwtException e) {
+            throw new JwtAuthenticationException("Invalid JWT token", e);
+        }
+    }
+
+    /**
+     * Returns the token already verified by {@code JwtTokenFilter} for this request, or verifies
+     * the bearer token when the filter did not run (e.g. the endpoint is {@code permitAll}).
+     */
+    public VerifiedJwt resolveVerifiedToken(HttpServletRequest request) {
+        Object verified = request.getAttribute(VerifiedJwt.REQUEST_ATTRIBUTE);
+        if (verified instanceof VerifiedJwt verifiedJwt) {
+            return verifiedJwt;
+        }
+        VerifiedJwt verifiedJwt = verify(extractBearerToken(request));
+        request.setAttribute(VerifiedJwt.REQUEST_ATTRIBUTE, verifiedJwt);
+        return verifiedJwt;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = this.extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -98,6 +141,10 @@ public class JwtTokenUtils {
         return expirationDate.before(new Date());
     }
 
+    public boolean isStateless() {
+        return stateless;
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -111,36 +158,37 @@ public class JwtTokenUtils {
     }
 
     public boolean validateToken(String token, Account userDetails) {
-        try {
-            String email = extractEmail(token);
-            Token existingToken = tokenRepository.findByToken(token).orElseThrow(
-                () -> new JwtAuthenticationException("Token is invalid")
-            );
-
-            // Check token existence and revocation
-            if (existingToken == null || existingToken.isRevoked()) {
-                throw new JwtAuthenticationException("Token is invalid or has been revoked");
-            }
+        return validateToken(verify(token), userDetails);
+    }
 
-            // Check token matches user
-            if (!email.equals(userDetails.getUsername())) {
-                throw new JwtAuthenticationException("Token does not match user");
+    public boolean validateToken(VerifiedJwt verifiedJwt, Account userDetails) {
+        String token = verifiedJwt.token();
+        switch (revocationIndex.lookup(token)) {
+            case REVOKED -> throw new JwtAuthenticationException(
+                "Token is invalid or has been revoked");
+            case ACTIVE -> {
+                // Known good, no need to read the tokens table
             }
-
-            // Check expiration
-            if (isTokenExpired(token)) {
-                throw new ExpiredJwtException(null, null, "Token has expired");
+            case UNKNOWN -> {
+                // Cold miss: consult the database once and remember the answer
+                Token existingToken = tokenRepository.findByTokenHash(Token.digest(token))
+                    .orElse(null);
+
+                // Check token existence and revocation
+                if (existingToken == null || existingToken.isRevoked()) {
+                    revocationIndex.markRevoked(token, verifiedJwt.expiration());
+                    throw new JwtAuthenticationException("Token is invalid or has been revoked");
+                }
+                revocationIndex.markActive(token, existingToken.getExpirationDate());
             }
+        }
 
-            return true;
-        } catch (ExpiredJwtException e) {
-            throw new JwtAuthenticationException("JWT token has expired");
-        } catch (MalformedJwtException e) {
-            throw new JwtAuthenticationException("Invalid JWT token format");
-        } catch (UnsupportedJwtException e) {
-            throw new JwtAuthenticationException("Unsupported JWT token");
-        } catch (IllegalArgumentException e) {
-            throw new JwtAuthenticationException("JWT claims string is empty");
+        // Check token matches user
+        if (!verifiedJwt.email().equals(userDetails.getUsername())) {
+            throw new JwtAuthenticationException("Token does not match user");
         }
+
+        // Signature and expiration were already checked once in verify()
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package com.orchid.orchidbe.components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revocation bus over PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Publishing is a {@code pg_notify} on the caller's connection, so inside a transaction the event
+ * only goes out if that transaction commits. Each node keeps one connection from the pool
+ * listening on a background thread. After a reconnect the listeners are told about the gap,
+ * since notifications sent meanwhile are lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.revocation-bus.type", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresRevocationEventBus implements RevocationEventBus {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation-bus.channel:token_revocations}")
+    private String channel;
+
+    @Value("${jwt.revocation-bus.poll-timeout:PT1S}")
+    private Duration pollTimeout;
+
+    @Value("${jwt.revocation-bus.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    // Our own notifications come back to us too, this lets us skip them
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private Counter published;
+    private Counter received;
+    private Thread listenerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            // Used unquoted in LISTEN, which takes no bind parameters
+            throw new IllegalStateException("Invalid jwt.revocation-bus.channel " + channel);
+        }
+        published = Counter.builder("auth.token.revocation.events")
+            .tag("direction", "published")
+            .register(meterRegistry);
+        received = Counter.builder("auth.token.revocation.events")
+            .tag("direction", "received")
+            .register(meterRegistry);
+
+        running = true;
+        listenerThread = new Thread(this::listen, "revocation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        listenerThread.interrupt();
+        listenerThread.join(pollTimeout.toMillis() * 2);
+    }
+
+    @Override
+    public void publish(RevocationEvent event) {
+        String payload = nodeId + " " + event.tokenHash() + " " + event.expiresAtMillis();
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+        published.increment();
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for token revocations on channel {}", channel);
+                listeners.forEach(Listener::onGap);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications =
+                        pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // The pool reports connection failures as runtime exceptions, keep retrying anyway
+                if (!running) {
+                    return;
+                }
+                log.warn("Token revocation listener lost its connection, retrying in {}",
+                         reconnectDelay, e);
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = StringUtils.split(payload, ' ');
+        if (parts.length != 3 || !StringUtils.isNumeric(parts[2])) {
+            log.warn("Ignoring malformed token revocation event: {}", payload);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        received.increment();
+        RevocationEvent event = new RevocationEvent(parts[1], Long.parseLong(parts[2]));
+        for (Listener listener : listeners) {
+            listener.onRevoked(event);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.orchid.orchidbe.components;
+
+/**
+ * Broadcasts token revocations to every node so each {@link TokenRevocationIndex} can reject a
+ * logged out token from memory instead of re-reading the {@code tokens} table.
+ * <p>
+ * Delivery is best effort. A listener told about a possible gap ({@link Listener#onGap()}) must
+ * fall back to the database until it has caught up.
+ */
+public interface RevocationEventBus {
+
+    /**
+     * @param tokenHash       SHA-256 digest of the access token, never the token itself
+     * @param expiresAtMillis when the token would have expired anyway, the entry can go after that
+     */
+    record RevocationEvent(String tokenHash, long expiresAtMillis) {
+
+    }
+
+    interface Listener {
+
+        void onRevoked(RevocationEvent event);
+
+        /**
+         * Events may have been lost, e.g. while the bus was reconnecting.
+         */
+        default void onGap() {
+        }
+    }
+
+    void publish(RevocationEvent event);
+
+    void subscribe(Listener listener);
+
+}
@@ -0,0 +1,200 @@
+package com.orchid.orchidbe.components;
+
+import com.orchid.orchidbe.components.RevocationEventBus.RevocationEvent;
+import com.orchid.orchidbe.domain.token.Token;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory view of the {@code tokens} table used by {@link JwtTokenUtils#validateToken}.
+ * <p>
+ * Tokens are either known active, known revoked (which also covers tokens that were deleted or
+ * never stored), or unknown. Only unknown tokens fall through to the database. Active entries
+ * are kept for a short TTL so a revocation done elsewhere is honoured within that delay, revoked
+ * entries are kept until the JWT itself expires.
+ * <p>
+ * Revocations made through {@link #revoke} are also broadcast on the {@link RevocationEventBus},
+ * so other nodes drop the token without waiting for their active entry to expire. Entries are
+ * keyed by the token digest, which is what travels on the bus.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationIndex {
+
+    public enum State {
+        ACTIVE,
+        REVOKED,
+        UNKNOWN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final RevocationEventBus eventBus;
+
+    @Value("${jwt.revocation-index.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${jwt.revocation-index.active-ttl:60}")
+    private long activeTtlSeconds;
+
+    // token digest -> epoch millis after which the entry must be dropped
+    private final Map<String, Long> active = new ConcurrentHashMap<>();
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("auth.token.index.lookups")
+            .tag("result", "hit")
+            .description("Token validations answered from memory")
+            .register(meterRegistry);
+        misses = Counter.builder("auth.token.index.lookups")
+            .tag("result", "miss")
+            .description("Token validations that had to read the tokens table")
+            .register(meterRegistry);
+        evictions = Counter.builder("auth.token.index.evictions")
+            .description("Entries dropped because the index was full")
+            .register(meterRegistry);
+        Gauge.builder("auth.token.index.hit.ratio", this, TokenRevocationIndex::hitRatio)
+            .register(meterRegistry);
+        Gauge.builder("auth.token.index.size", active, Map::size)
+            .tag("state", "active")
+            .register(meterRegistry);
+        Gauge.builder("auth.token.index.size", revoked, Map::size)
+            .tag("state", "revoked")
+            .register(meterRegistry);
+
+        eventBus.subscribe(new RevocationEventBus.Listener() {
+            @Override
+            public void onRevoked(RevocationEvent event) {
+                markRevokedDigest(event.tokenHash(), event.expiresAtMillis());
+            }
+
+            @Override
+            public void onGap() {
+                // A revocation may have been missed, re-check every active token once
+                active.clear();
+            }
+        });
+    }
+
+    public State lookup(String token) {
+        String digest = Token.digest(token);
+        long now = System.currentTimeMillis();
+        if (isLive(revoked, digest, now)) {
+            hits.increment();
+            return State.REVOKED;
+        }
+        if (isLive(active, digest, now)) {
+            hits.increment();
+            return State.ACTIVE;
+        }
+        misses.increment();
+        return State.UNKNOWN;
+    }
+
+    public void markActive(String token, LocalDateTime expiresAt) {
+        if (token == null) {
+            return;
+        }
+        long until = Math.min(System.currentTimeMillis() + activeTtlSeconds * 1000L,
+                              toEpochMillis(expiresAt));
+        String digest = Token.digest(token);
+        revoked.remove(digest);
+        put(active, digest, until);
+    }
+
+    /**
+     * Marks the token revoked here and on every other node. Use this when the token was actually
+     * revoked, {@link #markRevoked} only records what this node learnt from the database.
+     */
+    public void revoke(String token, LocalDateTime expiresAt) {
+        if (token == null) {
+            return;
+        }
+        long until = toEpochMillis(expiresAt);
+        String digest = Token.digest(token);
+        markRevokedDigest(digest, until);
+        eventBus.publish(new RevocationEvent(digest, until));
+    }
+
+    public void markRevoked(String token, LocalDateTime expiresAt) {
+        markRevoked(token, toEpochMillis(expiresAt));
+    }
+
+    public void markRevoked(String token, Date expiresAt) {
+        markRevoked(token, expiresAt == null ? Long.MAX_VALUE : expiresAt.getTime());
+    }
+
+    private void markRevoked(String token, long until) {
+        if (token == null) {
+            return;
+        }
+        markRevokedDigest(Token.digest(token), until);
+    }
+
+    private void markRevokedDigest(String digest, long until) {
+        active.remove(digest);
+        put(revoked, digest, until);
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private boolean isLive(Map<String, Long> entries, String digest, long now) {
+        Long until = entries.get(digest);
+        if (until == null) {
+            return false;
+        }
+        if (until < now) {
+            entries.remove(digest, until);
+            return false;
+        }
+        return true;
+    }
+
+    private void put(Map<String, Long> entries, String digest, long until) {
+        if (entries.size() >= maxEntries) {
+            makeRoom(entries);
+        }
+        entries.put(digest, until);
+    }
+
+    // Drop expired entries first, then arbitrary ones until we are back under the bound
+    private void makeRoom(Map<String, Long> entries) {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(until -> until < now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+        log.debug("Token revocation index trimmed to {} entries", entries.size());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MAX_VALUE;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+}
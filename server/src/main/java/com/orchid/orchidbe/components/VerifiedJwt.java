@@ -0,0 +1,55 @@
+package com.orchid.orchidbe.components;
+
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import io.jsonwebtoken.Claims;
+import java.util.Date;
+
+/**
+ * A JWT whose signature and expiration have already been checked by {@link JwtTokenUtils}.
+ * <p>
+ * {@code JwtTokenFilter} stores one instance per request under {@link #REQUEST_ATTRIBUTE}, so
+ * controllers and services read the claims from here instead of parsing the token again.
+ */
+public record VerifiedJwt(String token, Claims claims) {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedJwt.class.getName();
+
+    public String email() {
+        return claims.getSubject();
+    }
+
+    public Long userId() {
+        return claims.get("userId", Long.class);
+    }
+
+    /**
+     * Role signed into the token, or {@code null} for tokens issued before roles were embedded.
+     */
+    public RoleName role() {
+        String role = claims.get("role", String.class);
+        return role == null ? null : RoleName.valueOf(role);
+    }
+
+    /**
+     * Lightweight, non-persistent principal built purely from the signed claims. It carries the
+     * id, email and role that controllers read from {@code Authentication.getPrincipal()}.
+     */
+    public Account toPrincipal() {
+        return Account.builder()
+            .id(userId())
+            .email(email())
+            .role(new Role(role()))
+            .build();
+    }
+
+    public Date expiration() {
+        return claims.getExpiration();
+    }
+
+    public boolean isExpired() {
+        return expiration().before(new Date());
+    }
+
+}
@@ -1,14 +1,23 @@
 package com.orchid.orchidbe.configs;
 
 import com.orchid.orchidbe.repositories.AccountRepository;
+import com.orchid.orchidbe.security.BoundedPasswordEncoder;
+import com.orchid.orchidbe.security.CalibratedBCryptPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -17,6 +26,29 @@ public class SecurityConfig {
 
     private final AccountRepository accountRepository;
 
+    // 0 means one hashing thread per available core
+    @Value("${security.bcrypt.threads:0}")
+    private int bcryptThreads;
+
+    @Value("${security.bcrypt.queue-capacity:64}")
+    private int bcryptQueueCapacity;
+
+    @Value("${security.bcrypt.timeout:PT5S}")
+    private Duration bcryptTimeout;
+
+    // A fixed cost skips calibration, 0 means measure at startup
+    @Value("${security.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${security.bcrypt.target-latency:PT0.25S}")
+    private Duration bcryptTargetLatency;
+
+    @Value("${security.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${security.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
     @Bean
     public UserDetailsService userDetailsService() {
         return email -> accountRepository
@@ -26,8 +58,38 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        CalibratedBCryptPasswordEncoder bcrypt = bcryptStrength > 0
+            ? new CalibratedBCryptPasswordEncoder(bcryptStrength)
+            : CalibratedBCryptPasswordEncoder.calibrate(
+                bcryptTargetLatency, bcryptMinStrength, bcryptMaxStrength);
+        Gauge.builder("auth.password.strength", bcrypt,
+                      CalibratedBCryptPasswordEncoder::getStrength)
+            .register(meterRegistry);
+
+        return new BoundedPasswordEncoder(
+            bcrypt,
+            passwordHashingExecutor(),
+            bcryptTimeout,
+            meterRegistry);
+    }
+
+    // Deliberately not a bean: an Executor bean would replace Boot's applicationTaskExecutor
+    private ThreadPoolExecutor passwordHashingExecutor() {
+        int threads = bcryptThreads > 0
+            ? bcryptThreads
+            : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(bcryptQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
     }
 
     @Bean
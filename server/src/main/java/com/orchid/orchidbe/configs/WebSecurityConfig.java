@@ -5,12 +5,30 @@ import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpMethod.PUT;
 
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import com.orchid.orchidbe.filters.AuthRateLimitFilter;
 import com.orchid.orchidbe.filters.JwtTokenFilter;
+import com.orchid.orchidbe.filters.PublicCorsFilter;
+import com.orchid.orchidbe.security.RoleAuthorizationManager;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -20,6 +38,10 @@ import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatchers;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -33,12 +55,40 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 public class WebSecurityConfig {
 
     private final JwtTokenFilter jwtTokenFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
     private final AuthenticationEntryPoint authenticationEntryPoint;
     private final AccessDeniedHandler accessDeniedHandler;
 
     @Value("${api.prefix}")
     private String apiPrefix;
 
+    /**
+     * Anonymous catalog reads under {@code /public/**}: no token parsing, no security context,
+     * no session or request cache, and CORS headers rendered once at startup. Every other path
+     * falls through to {@link #filterChain}, and so does {@code /public/**} when
+     * {@code security.public-chain.enabled} is false.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnProperty(name = "security.public-chain.enabled", matchIfMissing = true)
+    public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(String.format("%s/public/**", apiPrefix))
+            .cors(AbstractHttpConfigurer::disable)
+            .csrf(AbstractHttpConfigurer::disable)
+            .securityContext(AbstractHttpConfigurer::disable)
+            .sessionManagement(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            .anonymous(AbstractHttpConfigurer::disable)
+            .servletApi(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .exceptionHandling(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .addFilterBefore(new PublicCorsFilter(corsConfiguration()), HeaderWriterFilter.class);
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -50,15 +100,30 @@ public class WebSecurityConfig {
                 .authenticationEntryPoint(authenticationEntryPoint)
                 .accessDeniedHandler(accessDeniedHandler))
             .authorizeHttpRequests(auth -> auth
+                // The export is streamed and finishes on an async dispatch, the request was
+                // already authorized and the token filter only runs once
+                .requestMatchers(RequestMatchers.allOf(
+                    new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+                    PathPatternRequestMatcher.withDefaults()
+                        .matcher(GET, String.format("%s/orchids/export", apiPrefix))
+                )).permitAll()
+
                 // === PUBLIC ENDPOINTS (No authentication required) ===
 
                 // Public endpoints
                 .requestMatchers(
                     String.format("%s/auth/login", apiPrefix),
                     String.format("%s/auth/register", apiPrefix),
+                    String.format("%s/auth/refresh-token", apiPrefix),
+                    String.format("%s/auth/.well-known/jwks.json", apiPrefix),
+                    // Only reached here when the dedicated public chain is switched off
                     String.format("%s/public/**", apiPrefix)
                 ).permitAll()
 
+                // Token and rate limit counters are for operators only
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**")
+                .hasRole(RoleName.ADMIN.name())
+
                 // Swagger UI and API docs
                 .requestMatchers(
                     "/graphiql", "/graphql", "/error",
@@ -75,13 +140,61 @@ public class WebSecurityConfig {
                 .anyRequest().authenticated())
 
             // Add JWT token filter before the username/password authentication filter
-            .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class)
+
+            // Throttle login/register before any token or password work is done
+            .addFilterBefore(authRateLimitFilter, JwtTokenFilter.class);
 
         return http.build();
     }
 
+    // A bean so it can compile every @RequireRoles method once the controllers exist
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static RoleAuthorizationManager roleAuthorizationManager() {
+        return new RoleAuthorizationManager();
+    }
+
+    // @RequireRoles checks run in the same slot as @PreAuthorize would
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requireRolesAuthorizationAdvisor(
+        RoleAuthorizationManager roleAuthorizationManager
+    ) {
+        Pointcut pointcut = Pointcuts.union(
+            new AnnotationMatchingPointcut(null, RequireRoles.class, true),
+            new AnnotationMatchingPointcut(RequireRoles.class, true));
+        AuthorizationManagerBeforeMethodInterceptor interceptor =
+            new AuthorizationManagerBeforeMethodInterceptor(pointcut, roleAuthorizationManager);
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+
+    // Both filters are beans, keep Boot from also running them on every request outside the chains
+    @Bean
+    public FilterRegistrationBean<JwtTokenFilter> jwtTokenFilterRegistration() {
+        FilterRegistrationBean<JwtTokenFilter> registration =
+            new FilterRegistrationBean<>(jwtTokenFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<AuthRateLimitFilter> authRateLimitFilterRegistration() {
+        FilterRegistrationBean<AuthRateLimitFilter> registration =
+            new FilterRegistrationBean<>(authRateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
+        return source;
+    }
+
+    private CorsConfiguration corsConfiguration() {
         CorsConfiguration configuration = new CorsConfiguration();
 
         // Allow your Vercel domain and localhost for development
@@ -115,9 +228,6 @@ public class WebSecurityConfig {
             "Access-Control-Allow-Credentials",
             "Authorization"));
         configuration.setMaxAge(3600L);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", configuration);
-        return source;
+        return configuration;
     }
 }
\ No newline at end of file
@@ -1,20 +1,31 @@
 package com.orchid.orchidbe.domain;
 
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
+import com.orchid.orchidbe.components.CatalogSnapshots;
+import com.orchid.orchidbe.components.CatalogSnapshots.Encoding;
 import com.orchid.orchidbe.domain.category.Category;
 import com.orchid.orchidbe.domain.category.CategoryService;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidSort;
 import com.orchid.orchidbe.domain.orchid.OrchidService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @RestController
 @RequestMapping("${api.prefix}/public")
@@ -22,21 +33,127 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Public API", description = "Public endpoints that don't require authentication")
 public class PublicController {
 
+    @Value("${catalog.http.cache-control.orchids:public, max-age=60}")
+    private String orchidsCacheControl;
+
+    @Value("${catalog.http.cache-control.orchid:public, max-age=60}")
+    private String orchidCacheControl;
+
+    @Value("${catalog.http.cache-control.categories:public, max-age=300}")
+    private String categoriesCacheControl;
+
+    @Value("${catalog.http.cache-control.category:public, max-age=300}")
+    private String categoryCacheControl;
+
+    /**
+     * Conditional GET against the cached entry: a matching If-None-Match or If-Modified-Since
+     * becomes a 304 before anything is serialized, and as long as the entry is cached the
+     * database is not touched either. Sets ETag, Last-Modified and Cache-Control in both cases.
+     */
+    private static boolean notModified(
+        ServletWebRequest request, Versioned<?> versioned, String cacheControl
+    ) {
+        return notModified(request, versioned.etag(), versioned.lastModified(), cacheControl);
+    }
+
+    private static boolean notModified(
+        ServletWebRequest request, String etag, long lastModified, String cacheControl
+    ) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return request.checkNotModified(etag, lastModified);
+    }
+
     // Account Controller
 
     // Role Controller
 
     // Orchid Controller
     private final OrchidService orchidService;
+    private final CatalogSnapshots catalogSnapshots;
 
+    // Served from prerendered bytes, the JSON is identical to serializing the list
     @GetMapping("/orchids")
-    public ResponseEntity<?> getOrchids() {
-        return ResponseEntity.ok(orchidService.getAll());
+    public ResponseEntity<?> getOrchids(ServletWebRequest request) {
+        var orchids = orchidService.getAllVersioned();
+        var encoding = Encoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (notModified(request, encoding.etag(orchids), orchids.lastModified(),
+                        orchidsCacheControl)) {
+            return null;
+        }
+        return catalogSnapshots.get("orchids", orchids, Function.identity())
+            .toResponse(encoding);
+    }
+
+    @GetMapping("/orchids/page")
+    @Operation(summary = "Browse orchids", description = """
+        Keyset-paginated listing sorted by id, price or name, optionally filtered by category,
+        natural/hybrid and price range. Pass the returned nextCursor to get the following page,
+        it already carries the sort and filters.""")
+    public ResponseEntity<MyApiResponse<OrchidDTO.OrchidPage>> getOrchidPage(
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction,
+        @RequestParam(required = false) Long categoryId,
+        @RequestParam(required = false) Boolean isNatural,
+        @RequestParam(required = false) Double minPrice,
+        @RequestParam(required = false) Double maxPrice,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        var query = new OrchidDTO.OrchidQuery(
+            OrchidSort.from(sort), "desc".equalsIgnoreCase(direction),
+            categoryId, isNatural, minPrice, maxPrice);
+        return MyApiResponse.success(orchidService.getPage(query, cursor, limit));
+    }
+
+    @GetMapping("/orchids/facets")
+    @Operation(summary = "Filter orchids with facet counts", description = """
+        Orchids in id order matching the selected categories, natural/hybrid flag and price
+        buckets, with the counts the storefront sidebar shows next to every filter value. Repeat
+        categoryId or priceBucket to select several values, the response lists the buckets and
+        their price ranges.""")
+    public ResponseEntity<MyApiResponse<OrchidDTO.OrchidFacetPage>> getOrchidFacets(
+        @RequestParam(required = false) Set<Long> categoryId,
+        @RequestParam(required = false) Boolean isNatural,
+        @RequestParam(required = false) Set<Integer> priceBucket,
+        @RequestParam(defaultValue = "0") int offset,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        var query = new OrchidDTO.OrchidFacetQuery(categoryId, isNatural, priceBucket);
+        return MyApiResponse.success(orchidService.getFacets(query, offset, limit));
+    }
+
+    @GetMapping("/orchids/search")
+    @Operation(summary = "Search orchids", description = """
+        Full-text search over orchid names and descriptions, best match first. Case and accents
+        are ignored, so "ho diep" also finds "Hồ Điệp".""")
+    public ResponseEntity<MyApiResponse<List<OrchidDTO.OrchidHit>>> searchOrchids(
+        @RequestParam String q,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        return MyApiResponse.success(orchidService.search(q, limit));
+    }
+
+    @GetMapping("/orchids/suggest")
+    @Operation(summary = "Autocomplete orchid names", description = """
+        Orchids whose name has a word starting with q, best sellers first. Meant to be called on
+        every keystroke, an empty q returns no suggestions.""")
+    public ResponseEntity<MyApiResponse<List<OrchidDTO.OrchidSuggestion>>> suggestOrchids(
+        @RequestParam(defaultValue = "") String q,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return MyApiResponse.success(orchidService.suggest(q, limit));
     }
 
     @GetMapping("/orchids/{id}")
-    public ResponseEntity<?> getOrchidById(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(orchidService.getById(id));
+    public ResponseEntity<?> getOrchidById(
+        @PathVariable("id") Long id, ServletWebRequest request
+    ) {
+        var orchid = orchidService.getByIdVersioned(id);
+        if (notModified(request, orchid, orchidCacheControl)) {
+            return null;
+        }
+        return ResponseEntity.ok(orchid.value());
     }
 
     // Order Controller
@@ -47,8 +164,14 @@ public class PublicController {
     @GetMapping("/categories")
     @Operation(summary = "Get all categories", description = "Returns a list of all categories")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all categories")
-    public ResponseEntity<MyApiResponse<List<Category>>> getCategories() {
-        return MyApiResponse.success(categoryService.getAll());
+    public ResponseEntity<MyApiResponse<List<Category>>> getCategories(
+        ServletWebRequest request
+    ) {
+        var categories = categoryService.getAllVersioned();
+        if (notModified(request, categories, categoriesCacheControl)) {
+            return null;
+        }
+        return MyApiResponse.success(categories.value());
     }
 
     @GetMapping("/categories/{id}")
@@ -57,8 +180,14 @@ public class PublicController {
         @ApiResponse(responseCode = "200", description = "Category found"),
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    public ResponseEntity<MyApiResponse<Category>> getCategoryById(@PathVariable Long id) {
-        return MyApiResponse.success(categoryService.getById(id));
+    public ResponseEntity<MyApiResponse<Category>> getCategoryById(
+        @PathVariable Long id, ServletWebRequest request
+    ) {
+        var category = categoryService.getByIdVersioned(id);
+        if (notModified(request, category, categoryCacheControl)) {
+            return null;
+        }
+        return MyApiResponse.success(category.value());
     }
 
     // Token Controller
@@ -1,7 +1,11 @@
 package com.orchid.orchidbe.domain.account;
 
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.components.VerifiedJwt;
 import com.orchid.orchidbe.domain.auth.AuthService;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -11,7 +15,6 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -30,9 +33,10 @@ public class AccountController {
 
     private final AccountService accountService;
     private final AuthService authService;
+    private final JwtTokenUtils jwtTokenUtils;
 
     @GetMapping("")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @Operation(summary = "Get all accounts", description = "Returns a list of all accounts")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all accounts")
     public ResponseEntity<MyApiResponse<List<AccountDTO.AccountResp>>> getAccounts() {
@@ -40,7 +44,7 @@ public class AccountController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     @Operation(summary = "Get all accounts", description = "Returns a list of all accounts")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all accounts")
     public ResponseEntity<MyApiResponse<Account>> getAccountById(@PathVariable Long id) {
@@ -49,20 +53,21 @@ public class AccountController {
 
     //Get user details from token
     @GetMapping("/me")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Account>> getUserDetails(HttpServletRequest request)
         throws Exception {
         String token = request.getHeader("Authorization");
         if (token == null || !token.startsWith("Bearer ")) {
             return MyApiResponse.unauthorized("Missing or invalid Authorization header");
         }
-        token = token.substring(7); // Remove "Bearer " prefix
-        Account userDetail = authService.getUserDetailsFromToken(token);
+        // Reuse the claims JwtTokenFilter already verified for this request
+        VerifiedJwt verifiedJwt = jwtTokenUtils.resolveVerifiedToken(request);
+        Account userDetail = authService.getUserDetailsFromToken(verifiedJwt);
         return MyApiResponse.success(userDetail);
     }
 
     @PostMapping("/create-new-employee")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @Operation(summary = "Create new employee", description = "Creates a new employee account")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Employee created successfully"),
@@ -76,7 +81,7 @@ public class AccountController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @Operation(summary = "Update account", description = "Updates an existing account by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Account updated successfully"),
@@ -92,7 +97,7 @@ public class AccountController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @Operation(summary = "Delete account", description = "Deletes an account by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Account deleted successfully"),
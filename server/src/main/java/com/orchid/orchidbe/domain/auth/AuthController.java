@@ -6,19 +6,29 @@ import com.orchid.orchidbe.annotations.auth.LogoutApiResponses;
 import com.orchid.orchidbe.annotations.auth.LogoutOperation;
 import com.orchid.orchidbe.annotations.auth.RegisterApiResponses;
 import com.orchid.orchidbe.annotations.auth.RegisterOperation;
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.components.JwtKeyRing;
 import com.orchid.orchidbe.domain.account.AccountDTO;
 import com.orchid.orchidbe.domain.auth.AuthPort.LoginResponse;
 import com.orchid.orchidbe.domain.account.AccountService;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import com.orchid.orchidbe.domain.token.TokenPort;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.time.Duration;
+import java.util.Map;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -35,6 +45,11 @@ public class AuthController {
 
     AccountService userService;
     AuthService authService;
+    JwtKeyRing keyRing;
+
+    @NonFinal
+    @Value("${jwt.jwks-max-age:PT1H}")
+    Duration jwksMaxAge;
 
     @LoginOperation
     @LoginApiResponses
@@ -47,6 +62,28 @@ public class AuthController {
         return MyApiResponse.success(authService.login(loginReq, request));
     }
 
+    @PostMapping("/refresh-token")
+    @Operation(summary = "Refresh token", description = """
+        Exchanges a refresh token for a new access/refresh token pair. Each refresh token can be
+        used once; replaying an already rotated one revokes the whole session.""")
+    public ResponseEntity<MyApiResponse<LoginResponse>> refreshToken(
+        @RequestBody @Valid TokenPort.RefreshTokenDTO refreshTokenDTO
+    ) throws Exception {
+        return MyApiResponse.success(authService.refreshToken(refreshTokenDTO));
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "JSON Web Key Set", description = """
+        Public keys for verifying access tokens locally (ES256 mode only, empty otherwise).
+        Follows RFC 7517 rather than the usual response envelope so standard JWT libraries can
+        consume it directly.""")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // Built once by the key ring, clients are expected to cache it and refetch on unknown kid
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(jwksMaxAge).cachePublic())
+            .body(keyRing.getJwks());
+    }
+
     @PostMapping("/register")
     @RegisterOperation
     @RegisterApiResponses
@@ -61,7 +98,7 @@ public class AuthController {
     @LogoutOperation
     @LogoutApiResponses
     @PostMapping("/logout")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF})
     public ResponseEntity<MyApiResponse<Object>> logout(HttpServletRequest request) {
         authService.logout(request);
         return MyApiResponse.noContent();
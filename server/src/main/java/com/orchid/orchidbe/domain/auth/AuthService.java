@@ -1,5 +1,6 @@
 package com.orchid.orchidbe.domain.auth;
 
+import com.orchid.orchidbe.components.VerifiedJwt;
 import com.orchid.orchidbe.domain.auth.AuthPort.LoginReq;
 import com.orchid.orchidbe.domain.token.TokenPort;
 import com.orchid.orchidbe.domain.account.Account;
@@ -9,6 +10,7 @@ public interface AuthService {
 
     Account getUserDetailsFromRefreshToken(String refreshToken) throws Exception;
     Account getUserDetailsFromToken(String token) throws Exception;
+    Account getUserDetailsFromToken(VerifiedJwt verifiedJwt);
     AuthPort.LoginResponse login(LoginReq loginReq, HttpServletRequest request);
     AuthPort.LoginResponse refreshToken(TokenPort.RefreshTokenDTO refreshTokenDTO) throws Exception;
     void logout(HttpServletRequest request);
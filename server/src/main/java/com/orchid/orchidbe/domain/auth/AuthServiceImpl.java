@@ -1,6 +1,7 @@
 package com.orchid.orchidbe.domain.auth;
 
 import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.components.VerifiedJwt;
 import com.orchid.orchidbe.domain.account.AccountService;
 import com.orchid.orchidbe.domain.auth.AuthPort.LoginReq;
 import com.orchid.orchidbe.domain.auth.AuthPort.LoginResponse;
@@ -16,8 +17,7 @@ import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -33,7 +33,6 @@ public class AuthServiceImpl implements AuthService {
     private final TokenService tokenService;
     private final JwtTokenUtils jwtTokenUtils;
     private final AccountRepository accountRepository;
-    private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final TokenRepository tokenRepository;
 
@@ -44,6 +43,7 @@ public class AuthServiceImpl implements AuthService {
         String password = loginReq.password();
         String token = null;
 
+        // The only account read of the login: everything below reuses this entity
         Optional<Account> optionalUser = accountRepository.findByEmail(email);
         if (optionalUser.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Wrong email or password");
@@ -51,27 +51,31 @@ public class AuthServiceImpl implements AuthService {
 
         Account existingUser = optionalUser.get();
 
-        UsernamePasswordAuthenticationToken authenticationToken =
-            new UsernamePasswordAuthenticationToken(email, password,
-                                                    existingUser.getAuthorities());
-        authenticationManager.authenticate(authenticationToken);
+        // Same check DaoAuthenticationProvider performs, without loading the account again
+        if (!passwordEncoder.matches(password, existingUser.getPassword())) {
+            throw new BadCredentialsException("Wrong email or password");
+        }
+        rehashIfNeeded(existingUser, password);
         token = jwtTokenUtils.generateToken(existingUser);
 
         String userAgent = request.getHeader("User-Agent");
-        Account userDetail = getUserDetailsFromToken(token);
-        Token jwtToken = tokenService.addToken(userDetail.getId(), token,
-                                               isMobileDevice(userAgent));
+        Token jwtToken = tokenService.addToken(existingUser, token, isMobileDevice(userAgent));
 
         log.info("User logged in successfully");
-        return AuthPort.LoginResponse.from(jwtToken, userDetail);
+        return AuthPort.LoginResponse.from(jwtToken, existingUser);
     }
 
     @Override
     public Account getUserDetailsFromToken(String token) {
-        if (jwtTokenUtils.isTokenExpired(token)) {
+        return getUserDetailsFromToken(jwtTokenUtils.verify(token));
+    }
+
+    @Override
+    public Account getUserDetailsFromToken(VerifiedJwt verifiedJwt) {
+        if (verifiedJwt.isExpired()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token is expired");
         }
-        String email = jwtTokenUtils.extractEmail(token);
+        String email = verifiedJwt.email();
         Optional<Account> user = accountRepository.findByEmail(email);
         if (user.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
@@ -81,27 +85,28 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public Account getUserDetailsFromRefreshToken(String refreshToken) throws Exception {
-        Token existingToken = tokenRepository.findByRefreshToken(refreshToken)
+        Token existingToken = tokenRepository.findByRefreshTokenHash(Token.digest(refreshToken))
             .orElseThrow(() -> new TokenNotFoundException("Refresh token does not exist"));
         return getUserDetailsFromToken(existingToken.getToken());
     }
 
     @Override
     public LoginResponse refreshToken(RefreshTokenDTO refreshTokenDTO) throws Exception {
-        Account userDetail = getUserDetailsFromRefreshToken(
-            refreshTokenDTO.refreshToken());
-        Token jwtToken = tokenService.refreshToken(refreshTokenDTO.refreshToken(), userDetail);
-        return AuthPort.LoginResponse.from(jwtToken, userDetail);
+        // One keyed lookup in TokenService resolves the session, the account is re-read so the
+        // new token carries its current role
+        Token jwtToken = tokenService.refreshToken(refreshTokenDTO.refreshToken());
+        return AuthPort.LoginResponse.from(jwtToken, jwtToken.getAccount());
     }
 
     @Override
     public void logout(HttpServletRequest request) {
-        String token = jwtTokenUtils.extractBearerToken(request);
+        VerifiedJwt verifiedJwt = jwtTokenUtils.resolveVerifiedToken(request);
+        String token = verifiedJwt.token();
         if (token == null) {
             throw new TokenNotFoundException("Token not found");
         }
 
-        if (jwtTokenUtils.isTokenExpired(token)) {
+        if (verifiedJwt.isExpired()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token is expired");
         }
 
@@ -112,6 +117,17 @@ public class AuthServiceImpl implements AuthService {
         tokenService.deleteToken(token, user);
     }
 
+    // The raw password is only available here, so this is where old BCrypt costs get migrated
+    private void rehashIfNeeded(Account account, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(account.getPassword())) {
+            return;
+        }
+        account.setPassword(passwordEncoder.encode(rawPassword));
+        accountRepository.save(account);
+        log.info("Password hash of account {} upgraded to the current BCrypt cost",
+                 account.getId());
+    }
+
     private boolean isMobileDevice(String userAgent) {
         // Kiểm tra User-Agent header để xác định thiết bị di động
         if (userAgent == null) {
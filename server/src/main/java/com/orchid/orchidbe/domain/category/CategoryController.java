@@ -1,6 +1,8 @@
 package com.orchid.orchidbe.domain.category;
 
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -8,7 +10,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -30,7 +31,7 @@ public class CategoryController {
         @ApiResponse(responseCode = "201", description = "Category created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input or category name already exists")
     })
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Object>> createCategory(
         @Valid @RequestBody CategoryDTO.CategoryReq categoryReq
     ) {
@@ -45,7 +46,7 @@ public class CategoryController {
         @ApiResponse(responseCode = "400", description = "Invalid input or category name already exists"),
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Object>> updateCategory(
         @PathVariable Long id,
         @Valid @RequestBody CategoryDTO.CategoryReq categoryReq
@@ -60,7 +61,7 @@ public class CategoryController {
         @ApiResponse(responseCode = "204", description = "Category deleted successfully"),
         @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Object>> deleteCategory(@PathVariable Long id) {
         categoryService.delete(id);
         return MyApiResponse.noContent();
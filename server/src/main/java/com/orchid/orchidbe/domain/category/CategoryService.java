@@ -1,11 +1,14 @@
 package com.orchid.orchidbe.domain.category;
 
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
 import java.util.List;
 
 public interface CategoryService {
 
     List<Category> getAll();
+    Versioned<List<Category>> getAllVersioned();
     Category getById(Long id);
+    Versioned<Category> getByIdVersioned(Long id);
     void save(CategoryDTO.CategoryReq category);
     void update(Long id, CategoryDTO.CategoryReq category);
     void delete(Long id);
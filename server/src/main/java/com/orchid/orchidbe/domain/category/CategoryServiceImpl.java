@@ -1,5 +1,7 @@
 package com.orchid.orchidbe.domain.category;
 
+import com.orchid.orchidbe.components.CatalogCache;
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
 import com.orchid.orchidbe.repositories.CategoryRepository;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -9,15 +11,37 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final String ALL_KEY = "categories";
+
     private final CategoryRepository categoryRepository;
+    private final CatalogCache catalogCache;
+
+    private static String idKey(Long id) {
+        return "category:" + id;
+    }
 
     @Override
     public List<Category> getAll() {
-        return categoryRepository.findAll();
+        return getAllVersioned().value();
+    }
+
+    @Override
+    public Versioned<List<Category>> getAllVersioned() {
+        return catalogCache.getVersioned(ALL_KEY, () -> List.copyOf(categoryRepository.findAll()));
     }
 
     @Override
     public Category getById(Long id) {
+        return getByIdVersioned(id).value();
+    }
+
+    @Override
+    public Versioned<Category> getByIdVersioned(Long id) {
+        return catalogCache.getVersioned(idKey(id), () -> findExisting(id));
+    }
+
+    // Writes must not modify the shared instances handed out by the cache
+    private Category findExisting(Long id) {
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
     }
@@ -33,12 +57,13 @@ public class CategoryServiceImpl implements CategoryService {
         newCategory.setName(category.name());
 
         categoryRepository.save(newCategory);
+        catalogCache.invalidate(ALL_KEY);
     }
 
     @Override
     public void update(Long id, CategoryDTO.CategoryReq category) {
 
-        var existingCategory = getById(id);
+        var existingCategory = findExisting(id);
 
         if (categoryRepository.existsByNameAndIdNot(category.name(), id)) {
             throw new IllegalArgumentException("Category with name " + category.name() + " already exists");
@@ -47,12 +72,13 @@ public class CategoryServiceImpl implements CategoryService {
         existingCategory.setName(category.name());
 
         categoryRepository.save(existingCategory);
-
+        catalogCache.invalidate(ALL_KEY, idKey(id));
     }
 
     @Override
     public void delete(Long id) {
-        var existingCategory = getById(id);
+        var existingCategory = findExisting(id);
         categoryRepository.delete(existingCategory);
+        catalogCache.invalidate(ALL_KEY, idKey(id));
     }
 }
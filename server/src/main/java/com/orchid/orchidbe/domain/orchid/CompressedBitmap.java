@@ -0,0 +1,550 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of non-negative ints split into chunks of 65536 values, in the style of Roaring bitmaps. A
+ * chunk holding at most {@value #ARRAY_MAX} values is a sorted char array, a denser one is a
+ * plain 8 KiB bitmap, so sparse and dense sets both stay small and AND/OR work chunk by chunk.
+ * <p>
+ * Not thread safe. The static operations never modify their arguments.
+ */
+final class CompressedBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private static final int WORDS = 1024;
+
+    // High 16 bits of the values of each chunk, ascending
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int size;
+
+    boolean add(int value) {
+        char key = (char) (value >>> 16);
+        int at = find(key);
+        if (at < 0) {
+            at = -at - 1;
+            insert(at, key, new ArrayChunk(new char[4], 0));
+        }
+        Chunk chunk = chunks[at];
+        boolean added = chunk.add((char) value);
+        if (chunk instanceof ArrayChunk array && array.cardinality > ARRAY_MAX) {
+            chunks[at] = array.toBitmap();
+        }
+        return added;
+    }
+
+    boolean remove(int value) {
+        int at = find((char) (value >>> 16));
+        if (at < 0) {
+            return false;
+        }
+        Chunk chunk = chunks[at];
+        boolean removed = chunk.remove((char) value);
+        if (chunk.cardinality() == 0) {
+            delete(at);
+        } else if (chunk instanceof BitmapChunk bitmap && bitmap.cardinality <= ARRAY_MAX) {
+            chunks[at] = bitmap.toArray();
+        }
+        return removed;
+    }
+
+    boolean contains(int value) {
+        int at = find((char) (value >>> 16));
+        return at >= 0 && chunks[at].contains((char) value);
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += chunks[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Calls {@code action} with up to {@code limit} values in ascending order, skipping the first
+     * {@code offset}. Whole chunks are skipped by their cardinality.
+     */
+    void forEach(int offset, int limit, IntConsumer action) {
+        int skip = offset;
+        int remaining = limit;
+        for (int i = 0; i < size && remaining > 0; i++) {
+            Chunk chunk = chunks[i];
+            if (skip >= chunk.cardinality()) {
+                skip -= chunk.cardinality();
+                continue;
+            }
+            int high = keys[i] << 16;
+            int emitted = chunk.forEach(skip, remaining, low -> action.accept(high | low));
+            remaining -= emitted;
+            skip = 0;
+        }
+    }
+
+    long memoryBytes() {
+        long bytes = 16L + 16L + keys.length * 2L + 16L + chunks.length * 4L;
+        for (int i = 0; i < size; i++) {
+            bytes += chunks[i].memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Copy that stores every chunk as a bitmap. Larger, but a value test is a single bit test, so
+     * it suits a filter that is intersected with many other bitmaps in a row.
+     */
+    CompressedBitmap expanded() {
+        CompressedBitmap result = new CompressedBitmap();
+        for (int i = 0; i < size; i++) {
+            Chunk chunk = chunks[i];
+            result.insert(i, keys[i], chunk instanceof ArrayChunk array
+                ? array.toBitmap()
+                : chunk.copy());
+        }
+        return result;
+    }
+
+    static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = a.chunks[i].and(b.chunks[j]);
+                if (chunk.cardinality() > 0) {
+                    result.insert(result.size, a.keys[i], chunk);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Size of the intersection, without building it.
+     */
+    static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.chunks[i].andCardinality(b.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || i < a.size && a.keys[i] < b.keys[j]) {
+                result.insert(result.size, a.keys[i], a.chunks[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.insert(result.size, b.keys[j], b.chunks[j].copy());
+                j++;
+            } else {
+                result.insert(result.size, a.keys[i], a.chunks[i].or(b.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int at, char key, Chunk chunk) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(chunks, at, chunks, at + 1, size - at);
+        keys[at] = key;
+        chunks[at] = chunk;
+        size++;
+    }
+
+    private void delete(int at) {
+        System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+        System.arraycopy(chunks, at + 1, chunks, at, size - at - 1);
+        chunks[--size] = null;
+    }
+
+    private sealed interface Chunk permits ArrayChunk, BitmapChunk {
+
+        int cardinality();
+
+        boolean add(char value);
+
+        boolean remove(char value);
+
+        boolean contains(char value);
+
+        Chunk and(Chunk other);
+
+        int andCardinality(Chunk other);
+
+        Chunk or(Chunk other);
+
+        Chunk copy();
+
+        // Returns how many values were passed to action
+        int forEach(int skip, int limit, IntConsumer action);
+
+        long memoryBytes();
+    }
+
+    private static final class ArrayChunk implements Chunk {
+
+        char[] values;
+        int cardinality;
+
+        ArrayChunk(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean add(char value) {
+            int at = Arrays.binarySearch(values, 0, cardinality, value);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.max(cardinality * 2, 4));
+            }
+            System.arraycopy(values, at, values, at + 1, cardinality - at);
+            values[at] = value;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char value) {
+            int at = Arrays.binarySearch(values, 0, cardinality, value);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(values, at + 1, values, at, cardinality - at - 1);
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public Chunk and(Chunk other) {
+            char[] result = new char[cardinality];
+            int count = intersect(other, result);
+            return new ArrayChunk(result, count);
+        }
+
+        @Override
+        public int andCardinality(Chunk other) {
+            return intersect(other, null);
+        }
+
+        // Counts the common values and copies them to result unless it is null
+        private int intersect(Chunk other, char[] result) {
+            if (other instanceof ArrayChunk array) {
+                if (array.cardinality / 16 > cardinality) {
+                    return search(this, array, result);
+                }
+                if (cardinality / 16 > array.cardinality) {
+                    return search(array, this, result);
+                }
+                return merge(this, array, result);
+            }
+            long[] words = ((BitmapChunk) other).words;
+            int count = 0;
+            if (result == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    count += (int) (words[values[i] >>> 6] >>> values[i]) & 1;
+                }
+                return count;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                if ((words[values[i] >>> 6] & 1L << values[i]) != 0) {
+                    result[count++] = values[i];
+                }
+            }
+            return count;
+        }
+
+        private static int merge(ArrayChunk a, ArrayChunk b, char[] result) {
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.cardinality && j < b.cardinality) {
+                if (a.values[i] < b.values[j]) {
+                    i++;
+                } else if (a.values[i] > b.values[j]) {
+                    j++;
+                } else {
+                    if (result != null) {
+                        result[count] = a.values[i];
+                    }
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        // For a much larger chunk, binary searching it beats walking it
+        private static int search(ArrayChunk small, ArrayChunk large, char[] result) {
+            int count = 0;
+            int from = 0;
+            for (int i = 0; i < small.cardinality && from < large.cardinality; i++) {
+                int at = Arrays.binarySearch(large.values, from, large.cardinality,
+                                             small.values[i]);
+                if (at >= 0) {
+                    if (result != null) {
+                        result[count] = small.values[i];
+                    }
+                    count++;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Chunk or(Chunk other) {
+            if (other instanceof BitmapChunk bitmap) {
+                return bitmap.or(this);
+            }
+            ArrayChunk array = (ArrayChunk) other;
+            if (cardinality + array.cardinality > ARRAY_MAX) {
+                // Likely too many for an array, setting bits is cheaper than merging
+                long[] words = new long[WORDS];
+                setAll(words);
+                array.setAll(words);
+                BitmapChunk union = new BitmapChunk(words, bitCount(words));
+                return union.cardinality > ARRAY_MAX ? union : union.toArray();
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                char next;
+                if (j == array.cardinality || i < cardinality && values[i] < array.values[j]) {
+                    next = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    next = array.values[j++];
+                } else {
+                    next = values[i++];
+                    j++;
+                }
+                result[count++] = next;
+            }
+            return new ArrayChunk(result, count);
+        }
+
+        @Override
+        public Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        public int forEach(int skip, int limit, IntConsumer action) {
+            int end = Math.min(cardinality, skip + limit);
+            for (int i = skip; i < end; i++) {
+                action.accept(values[i]);
+            }
+            return Math.max(end - skip, 0);
+        }
+
+        @Override
+        public long memoryBytes() {
+            return 16L + 16L + values.length * 2L;
+        }
+
+        BitmapChunk toBitmap() {
+            long[] words = new long[WORDS];
+            setAll(words);
+            return new BitmapChunk(words, cardinality);
+        }
+
+        void setAll(long[] words) {
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+    }
+
+    private static final class BitmapChunk implements Chunk {
+
+        final long[] words;
+        int cardinality;
+
+        BitmapChunk(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | 1L << value;
+            boolean added = before != words[value >>> 6];
+            if (added) {
+                cardinality++;
+            }
+            return added;
+        }
+
+        @Override
+        public boolean remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            boolean removed = before != words[value >>> 6];
+            if (removed) {
+                cardinality--;
+            }
+            return removed;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        public Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk array) {
+                return array.and(this);
+            }
+            long[] otherWords = ((BitmapChunk) other).words;
+            long[] result = new long[WORDS];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapChunk intersection = new BitmapChunk(result, count);
+            return count > ARRAY_MAX ? intersection : intersection.toArray();
+        }
+
+        @Override
+        public int andCardinality(Chunk other) {
+            if (other instanceof ArrayChunk array) {
+                return array.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapChunk) other).words;
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        public Chunk or(Chunk other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayChunk array) {
+                array.setAll(result);
+            } else {
+                long[] otherWords = ((BitmapChunk) other).words;
+                for (int i = 0; i < WORDS; i++) {
+                    result[i] |= otherWords[i];
+                }
+            }
+            return new BitmapChunk(result, bitCount(result));
+        }
+
+        @Override
+        public Chunk copy() {
+            return new BitmapChunk(words.clone(), cardinality);
+        }
+
+        @Override
+        public int forEach(int skip, int limit, IntConsumer action) {
+            int emitted = 0;
+            int seen = 0;
+            for (int i = 0; i < WORDS && emitted < limit; i++) {
+                long word = words[i];
+                int bits = Long.bitCount(word);
+                if (seen + bits <= skip) {
+                    seen += bits;
+                    continue;
+                }
+                while (word != 0 && emitted < limit) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (seen++ >= skip) {
+                        action.accept(i << 6 | bit);
+                        emitted++;
+                    }
+                }
+            }
+            return emitted;
+        }
+
+        @Override
+        public long memoryBytes() {
+            return 16L + 16L + WORDS * 8L;
+        }
+
+        ArrayChunk toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayChunk(values, count);
+        }
+    }
+
+}
@@ -8,9 +8,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,6 +20,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity(name = "orchids")
+@Table(indexes = {
+    @Index(name = "orchids_price_id_idx", columnList = "price, id"),
+    @Index(name = "orchids_name_id_idx", columnList = "name, id"),
+    @Index(name = "orchids_category_id_id_idx", columnList = "category_id, id"),
+    @Index(name = "orchids_category_id_price_id_idx", columnList = "category_id, price, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,19 +1,31 @@
 package com.orchid.orchidbe.domain.orchid;
 
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidExportFormat;
 import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("${api.prefix}/orchids")
@@ -23,8 +35,36 @@ public class OrchidController {
 
     private final OrchidService orchidService;
 
+    @Value("${catalog.export.timeout:PT30M}")
+    private Duration exportTimeout;
+
+    @GetMapping("/export")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
+    @Operation(summary = "Export the catalog", description = """
+        Every orchid in id order as NDJSON (one JSON object per line) or CSV. Rows are streamed
+        from a database cursor as they are read, so the download starts right away whatever the
+        catalog size.""")
+    public ResponseEntity<StreamingResponseBody> exportOrchids(
+        @RequestParam(defaultValue = "ndjson") String format,
+        HttpServletRequest request
+    ) {
+        var exportFormat = OrchidExportFormat.from(format);
+        // The body is written on an async dispatch, whose default timeout would cut off a large
+        // download; only this request gets the longer one
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+            .setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> orchidService.export(exportFormat, out);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, exportFormat.contentType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportFormat.fileName())
+                .build()
+                .toString())
+            .body(body);
+    }
+
     @PostMapping("")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<OrchidRes>> createOrchid(
         @Valid @RequestBody OrchidDTO.OrchidReq orchid
     ) {
@@ -32,7 +72,7 @@ public class OrchidController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Void>> updateOrchid(
         @PathVariable("id") Long id,
         @Valid @RequestBody OrchidDTO.OrchidReq orchid
@@ -42,7 +82,7 @@ public class OrchidController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     public ResponseEntity<?> deleteOrchid(@PathVariable("id") Long id) {
         orchidService.deleteById(id);
         return MyApiResponse.success();
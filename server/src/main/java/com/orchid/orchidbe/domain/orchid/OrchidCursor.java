@@ -0,0 +1,51 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidQuery;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing: the query it belongs to plus the sort key and id of the
+ * last row served. Clients only see it as an opaque base64url token, so the next page needs
+ * nothing but the cursor and always resumes the same ordering and filters.
+ */
+record OrchidCursor(
+    OrchidQuery query,
+    Long lastId,
+    Double lastPrice,
+    String lastName
+) {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    static OrchidCursor after(OrchidQuery query, OrchidRes last) {
+        return new OrchidCursor(query, last.id(), last.price(), last.name());
+    }
+
+    String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode orchid cursor", e);
+        }
+    }
+
+    static OrchidCursor decode(String token) {
+        try {
+            OrchidCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token),
+                                                   OrchidCursor.class);
+            if (cursor == null || cursor.query() == null || cursor.query().sort() == null
+                || cursor.lastId() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+}
@@ -4,6 +4,9 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 public interface OrchidDTO {
 
@@ -37,4 +40,152 @@ public interface OrchidDTO {
 
     }
 
+    enum OrchidSort {
+        ID, PRICE, NAME;
+
+        public static OrchidSort from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Unsupported sort '" + value + "', expected id, price or name");
+            }
+        }
+    }
+
+    enum OrchidExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        OrchidExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String fileName() {
+            return "orchids." + extension;
+        }
+
+        public static OrchidExportFormat from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Unsupported export format '" + value + "', expected ndjson or csv");
+            }
+        }
+    }
+
+    /**
+     * Ordering and filters of a catalog listing. Every filter is optional.
+     */
+    record OrchidQuery(
+        OrchidSort sort,
+        boolean descending,
+        Long categoryId,
+        Boolean isNatural,
+        Double minPrice,
+        Double maxPrice
+    ) {
+
+    }
+
+    /**
+     * Storefront filters, combined with AND across fields and OR within one field. Empty or
+     * {@code null} fields do not filter.
+     *
+     * @param priceBuckets indexes into the configured price ranges, see {@link PriceBucketCount}
+     */
+    record OrchidFacetQuery(
+        Set<Long> categoryIds,
+        Boolean isNatural,
+        Set<Integer> priceBuckets
+    ) {
+
+    }
+
+    record CategoryCount(
+        Long categoryId,
+        int count
+    ) {
+
+    }
+
+    record NaturalCount(
+        boolean isNatural,
+        int count
+    ) {
+
+    }
+
+    /**
+     * @param min inclusive lower bound, {@code null} for the first bucket
+     * @param max exclusive upper bound, {@code null} for the last bucket
+     */
+    record PriceBucketCount(
+        int bucket,
+        Double min,
+        Double max,
+        int count
+    ) {
+
+    }
+
+    /**
+     * Counts per value of each field. A field's counts apply the filters on the other fields but
+     * not its own, so they tell how many orchids selecting that value would add or leave.
+     */
+    record OrchidFacets(
+        List<CategoryCount> categories,
+        List<NaturalCount> natural,
+        List<PriceBucketCount> prices
+    ) {
+
+    }
+
+    /**
+     * @param total orchids matching every filter
+     */
+    record OrchidFacetPage(
+        List<OrchidRes> items,
+        int total,
+        OrchidFacets facets
+    ) {
+
+    }
+
+    /**
+     * @param score BM25 relevance, only comparable within one search
+     */
+    record OrchidHit(
+        OrchidRes orchid,
+        double score
+    ) {
+
+    }
+
+    record OrchidSuggestion(
+        Long id,
+        String name
+    ) {
+
+    }
+
+    /**
+     * @param nextCursor opaque token for the following page, {@code null} on the last page
+     */
+    record OrchidPage(
+        List<OrchidRes> items,
+        String nextCursor
+    ) {
+
+    }
+
 }
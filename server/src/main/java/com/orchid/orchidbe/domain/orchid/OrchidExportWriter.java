@@ -0,0 +1,116 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidExportFormat;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported orchids one row at a time through a fixed size buffer, so the memory used does
+ * not depend on the number of rows. The underlying stream is flushed but never closed.
+ */
+abstract sealed class OrchidExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final Writer out;
+
+    private OrchidExportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                                      BUFFER_SIZE);
+    }
+
+    static OrchidExportWriter of(
+        OrchidExportFormat format, OutputStream out, ObjectMapper objectMapper
+    ) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(out, objectMapper);
+            case CSV -> new Csv(out);
+        };
+    }
+
+    abstract void write(OrchidRes orchid) throws IOException;
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    // One JSON object per line, the same fields as the catalog reads
+    private static final class Ndjson extends OrchidExportWriter {
+
+        private final ObjectWriter json;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) {
+            super(out);
+            // The writer buffers anyway, a flush per row would send one chunk per row
+            this.json = objectMapper.writerFor(OrchidRes.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        void write(OrchidRes orchid) throws IOException {
+            out.write(json.writeValueAsString(orchid));
+            out.write('\n');
+        }
+    }
+
+    // RFC 4180, with a byte order mark so spreadsheets read the Vietnamese names as UTF-8
+    private static final class Csv extends OrchidExportWriter {
+
+        Csv(OutputStream out) throws IOException {
+            super(out);
+            this.out.write('\uFEFF');
+            this.out.write("id,isNatural,name,description,url,price,categoryId\r\n");
+        }
+
+        @Override
+        void write(OrchidRes orchid) throws IOException {
+            out.write(String.valueOf(orchid.id()));
+            out.write(',');
+            out.write(String.valueOf(orchid.isNatural()));
+            out.write(',');
+            text(orchid.name());
+            out.write(',');
+            text(orchid.description());
+            out.write(',');
+            text(orchid.url());
+            out.write(',');
+            if (orchid.price() != null) {
+                out.write(String.valueOf(orchid.price()));
+            }
+            out.write(',');
+            if (orchid.categoryId() != null) {
+                out.write(String.valueOf(orchid.categoryId()));
+            }
+            out.write("\r\n");
+        }
+
+        private void text(String value) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            // A leading quote keeps spreadsheets from running a cell as a formula
+            boolean formula = "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+            boolean quoted = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quoted) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            if (formula) {
+                out.write('\'');
+            }
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+}
@@ -0,0 +1,328 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.CategoryCount;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.NaturalCount;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetPage;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetQuery;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacets;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.PriceBucketCount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory facets over the catalog: one {@link CompressedBitmap} of orchid ordinals per
+ * category, per natural flag and per price bucket.
+ * <p>
+ * A filter is the AND of one bitmap per filtered field, each the OR of the selected values, and
+ * every facet count is the size of an intersection, so a storefront page and its sidebar cost a
+ * handful of bitmap operations and no query. Ordinals follow insertion order, which is id order
+ * for a rebuild and for new orchids, and an update keeps the orchid's ordinal.
+ * <p>
+ * Price buckets are split at {@code catalog.facets.price-bounds}. Queries share a read lock and
+ * only wait while a write is applied.
+ */
+@Component
+public class OrchidFacetIndex {
+
+    private final double[] priceBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Both guarded by lock
+    private Segment segment;
+    // Writes made while a rebuild loads its snapshot, a null value is a removal
+    private Map<Long, OrchidRes> pending;
+
+    public OrchidFacetIndex(
+        @Value("${catalog.facets.price-bounds:10,25,50,100,250,500}") double[] priceBounds
+    ) {
+        for (int i = 1; i < priceBounds.length; i++) {
+            if (!(priceBounds[i] > priceBounds[i - 1])) {
+                throw new IllegalArgumentException(
+                    "Price bounds must be strictly ascending: " + Arrays.toString(priceBounds));
+            }
+        }
+        this.priceBounds = priceBounds.clone();
+        this.segment = new Segment();
+    }
+
+    public int priceBuckets() {
+        return priceBounds.length + 1;
+    }
+
+    /**
+     * Matching orchids in ordinal order, skipping the first {@code offset}, with the facet counts
+     * of the whole result.
+     */
+    public OrchidFacetPage query(OrchidFacetQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return segment.query(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap used by the bitmaps, the orchids themselves are not counted.
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return segment.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(OrchidRes orchid) {
+        write(orchid.id(), orchid);
+    }
+
+    public void remove(Long id) {
+        write(id, null);
+    }
+
+    /**
+     * Replaces the whole index with what {@code loader} returns. Writes that happen while it runs
+     * are applied on top, so they are kept whether or not the snapshot already includes them.
+     */
+    public void rebuild(Supplier<? extends Collection<OrchidRes>> loader) {
+        rebuildLock.lock();
+        try {
+            withWriteLock(() -> pending = new LinkedHashMap<>());
+            Segment rebuilt = new Segment();
+            try {
+                for (OrchidRes orchid : loader.get()) {
+                    rebuilt.put(orchid);
+                }
+            } finally {
+                withWriteLock(() -> {
+                    if (pending != null) {
+                        pending.forEach((id, orchid) -> apply(rebuilt, id, orchid));
+                        pending = null;
+                    }
+                });
+            }
+            withWriteLock(() -> segment = rebuilt);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void write(Long id, OrchidRes orchid) {
+        withWriteLock(() -> {
+            apply(segment, id, orchid);
+            if (pending != null) {
+                pending.put(id, orchid);
+            }
+        });
+    }
+
+    private static void apply(Segment segment, Long id, OrchidRes orchid) {
+        if (orchid == null) {
+            segment.remove(id);
+        } else {
+            segment.put(orchid);
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -1 when the orchid has no price
+    private int bucketOf(Double price) {
+        if (price == null || price.isNaN()) {
+            return -1;
+        }
+        int at = Arrays.binarySearch(priceBounds, price);
+        return at >= 0 ? at + 1 : -at - 1;
+    }
+
+    // Intersection of the non-null filters, null when there are none
+    private static CompressedBitmap and(CompressedBitmap... filters) {
+        CompressedBitmap result = null;
+        for (CompressedBitmap filter : filters) {
+            if (filter != null) {
+                result = result == null ? filter : CompressedBitmap.and(result, filter);
+            }
+        }
+        return result;
+    }
+
+    private static int count(CompressedBitmap filter, CompressedBitmap values) {
+        return filter == null
+            ? values.cardinality()
+            : CompressedBitmap.andCardinality(filter, values);
+    }
+
+    private final class Segment {
+
+        final Map<Long, Integer> ordinals = new HashMap<>();
+        OrchidRes[] docs = new OrchidRes[64];
+        int size;
+
+        final CompressedBitmap live = new CompressedBitmap();
+        // Sorted so the facet counts come out in category id order
+        final Map<Long, CompressedBitmap> categories = new TreeMap<>();
+        // Indexed by isNatural, hybrids first
+        final CompressedBitmap[] natural = {new CompressedBitmap(), new CompressedBitmap()};
+        final CompressedBitmap[] prices = new CompressedBitmap[priceBuckets()];
+
+        Segment() {
+            Arrays.setAll(prices, bucket -> new CompressedBitmap());
+        }
+
+        void put(OrchidRes orchid) {
+            Integer existing = ordinals.get(orchid.id());
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unset(doc, docs[doc]);
+            } else {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                }
+                doc = size++;
+                ordinals.put(orchid.id(), doc);
+            }
+            docs[doc] = orchid;
+            live.add(doc);
+            if (orchid.categoryId() != null) {
+                categories.computeIfAbsent(orchid.categoryId(), id -> new CompressedBitmap())
+                    .add(doc);
+            }
+            natural[orchid.isNatural() ? 1 : 0].add(doc);
+            int bucket = bucketOf(orchid.price());
+            if (bucket >= 0) {
+                prices[bucket].add(doc);
+            }
+        }
+
+        void remove(Long id) {
+            Integer doc = ordinals.remove(id);
+            if (doc != null) {
+                unset(doc, docs[doc]);
+                docs[doc] = null;
+            }
+        }
+
+        private void unset(int doc, OrchidRes orchid) {
+            live.remove(doc);
+            if (orchid.categoryId() != null) {
+                CompressedBitmap category = categories.get(orchid.categoryId());
+                category.remove(doc);
+                if (category.cardinality() == 0) {
+                    categories.remove(orchid.categoryId());
+                }
+            }
+            natural[orchid.isNatural() ? 1 : 0].remove(doc);
+            int bucket = bucketOf(orchid.price());
+            if (bucket >= 0) {
+                prices[bucket].remove(doc);
+            }
+        }
+
+        OrchidFacetPage query(OrchidFacetQuery query, int offset, int limit) {
+            CompressedBitmap category = null;
+            if (query.categoryIds() != null && !query.categoryIds().isEmpty()) {
+                category = new CompressedBitmap();
+                for (Long id : query.categoryIds()) {
+                    CompressedBitmap values = id == null ? null : categories.get(id);
+                    if (values != null) {
+                        category = CompressedBitmap.or(category, values);
+                    }
+                }
+            }
+            CompressedBitmap nature = query.isNatural() == null
+                ? null
+                : natural[query.isNatural() ? 1 : 0];
+            CompressedBitmap price = null;
+            if (query.priceBuckets() != null && !query.priceBuckets().isEmpty()) {
+                price = new CompressedBitmap();
+                for (Integer bucket : query.priceBuckets()) {
+                    if (bucket != null) {
+                        price = CompressedBitmap.or(price, prices[bucket]);
+                    }
+                }
+            }
+
+            // Each field is counted against the filters on the other two
+            CompressedBitmap withoutPrice = and(category, nature);
+            CompressedBitmap withoutNature = and(category, price);
+            CompressedBitmap withoutCategory = and(nature, price);
+            CompressedBitmap matching = and(withoutPrice, price);
+            if (matching == null) {
+                matching = live;
+            }
+            List<OrchidRes> items = new ArrayList<>(Math.min(limit, 64));
+            matching.forEach(offset, limit, doc -> items.add(docs[doc]));
+
+            // Intersected with every category, so expanded once up front
+            CompressedBitmap categoryFilter = withoutCategory == null
+                ? null
+                : withoutCategory.expanded();
+            List<CategoryCount> categoryCounts = new ArrayList<>(categories.size());
+            categories.forEach((id, values) -> categoryCounts.add(
+                new CategoryCount(id, count(categoryFilter, values))));
+
+            List<NaturalCount> naturalCounts = List.of(
+                new NaturalCount(true, count(withoutNature, natural[1])),
+                new NaturalCount(false, count(withoutNature, natural[0])));
+
+            List<PriceBucketCount> priceCounts = new ArrayList<>(prices.length);
+            for (int bucket = 0; bucket < prices.length; bucket++) {
+                priceCounts.add(new PriceBucketCount(
+                    bucket,
+                    bucket == 0 ? null : priceBounds[bucket - 1],
+                    bucket == priceBounds.length ? null : priceBounds[bucket],
+                    count(withoutPrice, prices[bucket])));
+            }
+
+            return new OrchidFacetPage(
+                List.copyOf(items), matching.cardinality(),
+                new OrchidFacets(List.copyOf(categoryCounts), naturalCounts,
+                                 List.copyOf(priceCounts)));
+        }
+
+        long memoryBytes() {
+            long bytes = live.memoryBytes() + natural[0].memoryBytes() + natural[1].memoryBytes();
+            for (CompressedBitmap values : categories.values()) {
+                bytes += values.memoryBytes();
+            }
+            for (CompressedBitmap values : prices) {
+                bytes += values.memoryBytes();
+            }
+            return bytes;
+        }
+    }
+
+}
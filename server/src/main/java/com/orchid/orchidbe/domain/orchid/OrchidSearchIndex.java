@@ -0,0 +1,371 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidHit;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over orchid names and descriptions, ranked with BM25.
+ * <p>
+ * Documents get dense ordinals in insertion order, so every posting list is sorted by ordinal and
+ * a query walks its lists together one document at a time, keeping only the best hits in a small
+ * heap. An update appends a new ordinal and tombstones the old one. Tombstones are dropped by a
+ * compaction once they outnumber the live documents.
+ * <p>
+ * A name occurrence counts {@value #NAME_WEIGHT} times as much as a description occurrence, both
+ * for term frequency and document length. Queries share a read lock and only wait while a write
+ * is applied.
+ */
+@Component
+public class OrchidSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Both guarded by lock
+    private Segment segment = new Segment();
+    // Writes made while a rebuild loads its snapshot, a null value is a removal
+    private Map<Long, OrchidRes> pending;
+
+    public List<OrchidHit> search(String query, int limit) {
+        List<String> terms = OrchidText.tokens(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(new LinkedHashSet<>(terms), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(OrchidRes orchid) {
+        write(orchid.id(), orchid);
+    }
+
+    public void remove(Long id) {
+        write(id, null);
+    }
+
+    /**
+     * Replaces the whole index with what {@code loader} returns. Writes that happen while it runs
+     * are applied on top, so they are kept whether or not the snapshot already includes them.
+     */
+    public void rebuild(Supplier<? extends Collection<OrchidRes>> loader) {
+        rebuildLock.lock();
+        try {
+            withWriteLock(() -> pending = new LinkedHashMap<>());
+            Segment rebuilt = new Segment();
+            try {
+                for (OrchidRes orchid : loader.get()) {
+                    rebuilt.put(orchid);
+                }
+            } finally {
+                withWriteLock(() -> {
+                    if (pending != null) {
+                        pending.forEach((id, orchid) -> apply(rebuilt, id, orchid));
+                        pending = null;
+                    }
+                });
+            }
+            withWriteLock(() -> segment = rebuilt.compactIfNeeded());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void write(Long id, OrchidRes orchid) {
+        withWriteLock(() -> {
+            apply(segment, id, orchid);
+            segment = segment.compactIfNeeded();
+            if (pending != null) {
+                pending.put(id, orchid);
+            }
+        });
+    }
+
+    private static void apply(Segment segment, Long id, OrchidRes orchid) {
+        if (orchid == null) {
+            segment.remove(id);
+        } else {
+            segment.put(orchid);
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(OrchidRes orchid) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : OrchidText.tokens(orchid.name())) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : OrchidText.tokens(orchid.description())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private static final class Postings {
+
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+        // Live documents only, tombstoned entries stay in the arrays until compaction
+        int documentFrequency;
+        // Never lowered on removal, it only has to be an upper bound
+        int maxFrequency;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            maxFrequency = Math.max(maxFrequency, frequency);
+            size++;
+            documentFrequency++;
+        }
+    }
+
+    private record ScoredDoc(int doc, double score) {
+
+    }
+
+    private record QueryTerm(Postings postings, double idf, double bound) {
+
+    }
+
+    private static double norm(int length, double averageLength) {
+        return K1 * (1 - B + B * length / averageLength);
+    }
+
+    private static double score(double idf, int frequency, double norm) {
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    // First position at or after from whose document is not before doc
+    private static int seek(int[] docs, int from, int size, int doc) {
+        if (from >= size || docs[from] >= doc) {
+            return from;
+        }
+        int found = Arrays.binarySearch(docs, from, size, doc);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    // Lowest score first, then the newer document, so the heap head is the hit to drop
+    private static final Comparator<ScoredDoc> WORST_FIRST = Comparator
+        .comparingDouble(ScoredDoc::score)
+        .thenComparing(ScoredDoc::doc, Comparator.reverseOrder());
+
+    private static final class Segment {
+
+        final Map<String, Postings> terms = new HashMap<>();
+        final Map<Long, Integer> ordinals = new HashMap<>();
+        OrchidRes[] docs = new OrchidRes[64];
+        int[] lengths = new int[64];
+        int size;
+        int live;
+        long totalLength;
+        // Never raised on removal, it only has to be a lower bound
+        int minLength = Integer.MAX_VALUE;
+
+        void put(OrchidRes orchid) {
+            remove(orchid.id());
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            int doc = size++;
+            int length = 0;
+            for (var term : termFrequencies(orchid).entrySet()) {
+                terms.computeIfAbsent(term.getKey(), key -> new Postings())
+                    .add(doc, term.getValue());
+                length += term.getValue();
+            }
+            docs[doc] = orchid;
+            lengths[doc] = length;
+            minLength = Math.min(minLength, length);
+            totalLength += length;
+            live++;
+            ordinals.put(orchid.id(), doc);
+        }
+
+        void remove(Long id) {
+            Integer doc = ordinals.remove(id);
+            if (doc == null) {
+                return;
+            }
+            for (String term : termFrequencies(docs[doc]).keySet()) {
+                Postings postings = terms.get(term);
+                if (--postings.documentFrequency == 0) {
+                    terms.remove(term);
+                }
+            }
+            docs[doc] = null;
+            totalLength -= lengths[doc];
+            live--;
+        }
+
+        Segment compactIfNeeded() {
+            int tombstones = size - live;
+            if (tombstones < Math.max(MIN_TOMBSTONES_TO_COMPACT, live)) {
+                return this;
+            }
+            Segment compacted = new Segment();
+            for (int doc = 0; doc < size; doc++) {
+                if (docs[doc] != null) {
+                    compacted.put(docs[doc]);
+                }
+            }
+            return compacted;
+        }
+
+        /**
+         * Document-at-a-time with MaxScore pruning: query terms are ordered by their highest
+         * possible contribution, and once the top hits are known the cheapest terms whose bounds
+         * add up to less than the worst of them stop producing candidates. They are then only
+         * probed for documents that one of the remaining terms matches.
+         */
+        List<OrchidHit> search(Collection<String> queryTerms, int limit) {
+            List<QueryTerm> matched = new ArrayList<>(queryTerms.size());
+            double averageLength = (double) totalLength / live;
+            double minNorm = norm(minLength, averageLength);
+            for (String term : queryTerms) {
+                Postings postings = terms.get(term);
+                if (postings != null) {
+                    double df = postings.documentFrequency;
+                    double idf = Math.log(1 + (live - df + 0.5) / (df + 0.5));
+                    // Slack keeps rounding from pruning a document that reaches the bound exactly
+                    double bound = score(idf, postings.maxFrequency, minNorm) * (1 + 1e-9);
+                    matched.add(new QueryTerm(postings, idf, bound));
+                }
+            }
+            if (matched.isEmpty()) {
+                return List.of();
+            }
+            matched.sort(Comparator.comparingDouble(QueryTerm::bound));
+
+            int n = matched.size();
+            int[][] postingDocs = new int[n][];
+            int[][] postingFrequencies = new int[n][];
+            int[] sizes = new int[n];
+            double[] idf = new double[n];
+            double[] boundUpTo = new double[n];
+            for (int i = 0; i < n; i++) {
+                QueryTerm term = matched.get(i);
+                postingDocs[i] = term.postings().docs;
+                postingFrequencies[i] = term.postings().frequencies;
+                sizes[i] = term.postings().size;
+                idf[i] = term.idf();
+                boundUpTo[i] = (i == 0 ? 0 : boundUpTo[i - 1]) + term.bound();
+            }
+
+            int[] cursors = new int[n];
+            double[] contributions = new double[n];
+            // Terms below this index can no longer lift a document into the top hits on their own
+            int firstEssential = 0;
+            double threshold = Double.NEGATIVE_INFINITY;
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < n; i++) {
+                    if (cursors[i] < sizes[i]) {
+                        doc = Math.min(doc, postingDocs[i][cursors[i]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                double norm = norm(lengths[doc], averageLength);
+                double partial = 0;
+                Arrays.fill(contributions, 0);
+                for (int i = firstEssential; i < n; i++) {
+                    int cursor = cursors[i];
+                    if (cursor < sizes[i] && postingDocs[i][cursor] == doc) {
+                        contributions[i] = score(idf[i], postingFrequencies[i][cursor], norm);
+                        partial += contributions[i];
+                        cursors[i] = cursor + 1;
+                    }
+                }
+                for (int i = firstEssential - 1; i >= 0 && partial + boundUpTo[i] > threshold; i--) {
+                    int cursor = seek(postingDocs[i], cursors[i], sizes[i], doc);
+                    if (cursor < sizes[i] && postingDocs[i][cursor] == doc) {
+                        contributions[i] = score(idf[i], postingFrequencies[i][cursor], norm);
+                        partial += contributions[i];
+                        cursor++;
+                    }
+                    cursors[i] = cursor;
+                }
+                if (partial * (1 + 1e-9) <= threshold || docs[doc] == null) {
+                    continue;
+                }
+
+                // Summed in a fixed order so pruning never changes a score, not even its last bit
+                double score = 0;
+                for (double contribution : contributions) {
+                    score += contribution;
+                }
+                // Documents come in ordinal order, so on a tie the one already kept wins
+                if (score <= threshold) {
+                    continue;
+                }
+                top.add(new ScoredDoc(doc, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+                if (top.size() == limit) {
+                    threshold = top.peek().score();
+                    while (firstEssential < n && boundUpTo[firstEssential] <= threshold) {
+                        firstEssential++;
+                    }
+                }
+            }
+
+            OrchidHit[] hits = new OrchidHit[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                ScoredDoc hit = top.poll();
+                hits[i] = new OrchidHit(docs[hit.doc()], hit.score());
+            }
+            return List.of(hits);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.order.Order.OrderStatus;
+import com.orchid.orchidbe.domain.order.OrderDetailDTO.OrchidSales;
+import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.OrderDetailRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@link OrchidSearchIndex}, {@link OrchidSuggestIndex} and {@link OrchidFacetIndex} from
+ * the database once the application is up, then rebuilds them every
+ * {@code catalog.search.rebuild-interval} from a single read of the catalog. Writes on this node
+ * reach them right away through {@code OrchidServiceImpl}, the periodic rebuild picks up writes
+ * made on other nodes and refreshes the sales counts suggestions are ranked by.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrchidSearchIndexer {
+
+    private final OrchidRepository orchidRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final OrchidSearchIndex searchIndex;
+    private final OrchidSuggestIndex suggestIndex;
+    private final OrchidFacetIndex facetIndex;
+    private final MeterRegistry meterRegistry;
+
+    private Timer rebuilds;
+
+    @PostConstruct
+    void init() {
+        rebuilds = Timer.builder("catalog.search.rebuilds")
+            .description("Duration of full search index rebuilds")
+            .register(meterRegistry);
+        Gauge.builder("catalog.search.documents", searchIndex, OrchidSearchIndex::size)
+            .description("Orchids in the search index")
+            .register(meterRegistry);
+        Gauge.builder("catalog.suggest.entries", suggestIndex, OrchidSuggestIndex::size)
+            .description("Names held by the autocomplete trees")
+            .register(meterRegistry);
+        Gauge.builder("catalog.suggest.memory", suggestIndex, OrchidSuggestIndex::memoryBytes)
+            .description("Approximate heap used by the autocomplete index")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("catalog.facets.memory", facetIndex, OrchidFacetIndex::memoryBytes)
+            .description("Approximate heap used by the facet bitmaps")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(
+        initialDelayString = "${catalog.search.rebuild-interval:PT10M}",
+        fixedDelayString = "${catalog.search.rebuild-interval:PT10M}")
+    public void rebuild() {
+        rebuilds.record(() -> {
+            Map<Long, Long> unitsSold = unitsSold();
+            // Nested so every index starts recording concurrent writes before the one read
+            var catalog = new AtomicReference<List<OrchidRes>>();
+            searchIndex.rebuild(() -> {
+                suggestIndex.rebuild(() -> {
+                    facetIndex.rebuild(() -> {
+                        catalog.set(orchidRepository.findAllRes());
+                        return catalog.get();
+                    });
+                    return catalog.get();
+                }, unitsSold);
+                return catalog.get();
+            });
+        });
+        log.debug("Orchid search indexes rebuilt with {} orchids, autocomplete uses ~{} KiB",
+                  searchIndex.size(), suggestIndex.memoryBytes() / 1024);
+    }
+
+    // Pending or cancelled orders say nothing about what people actually buy
+    private Map<Long, Long> unitsSold() {
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (OrchidSales sales : orderDetailRepository.findUnitsSoldPerOrchid(
+            OrderStatus.COMPLETED)) {
+            unitsSold.put(sales.orchidId(), sales.quantity());
+        }
+        return unitsSold;
+    }
+
+}
@@ -1,12 +1,22 @@
 package com.orchid.orchidbe.domain.orchid;
 
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
 import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidReq;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface OrchidService {
 
     List<OrchidDTO.OrchidRes> getAll();
+    Versioned<List<OrchidDTO.OrchidRes>> getAllVersioned();
+    OrchidDTO.OrchidPage getPage(OrchidDTO.OrchidQuery query, String cursor, int limit);
+    List<OrchidDTO.OrchidHit> search(String query, int limit);
+    List<OrchidDTO.OrchidSuggestion> suggest(String prefix, int limit);
+    OrchidDTO.OrchidFacetPage getFacets(OrchidDTO.OrchidFacetQuery query, int offset, int limit);
+    void export(OrchidDTO.OrchidExportFormat format, OutputStream out) throws IOException;
     OrchidDTO.OrchidRes getById(Long id);
+    Versioned<OrchidDTO.OrchidRes> getByIdVersioned(Long id);
     OrchidDTO.OrchidRes add(OrchidDTO.OrchidReq orchid);
     void update(Long id, OrchidReq orchid);
     void deleteById(Long id);
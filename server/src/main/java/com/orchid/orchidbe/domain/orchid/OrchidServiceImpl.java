@@ -1,28 +1,216 @@
 package com.orchid.orchidbe.domain.orchid;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.components.CatalogCache;
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
 import com.orchid.orchidbe.domain.category.CategoryService;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidQuery;
 import com.orchid.orchidbe.repositories.OrchidRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class OrchidServiceImpl implements OrchidService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ALL_KEY = "orchids";
+
     private final OrchidRepository orchidRepository;
     private final CategoryService categoryService;
+    private final CatalogCache catalogCache;
+    private final OrchidSearchIndex searchIndex;
+    private final OrchidSuggestIndex suggestIndex;
+    private final OrchidFacetIndex facetIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalog.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    private static String idKey(Long id) {
+        return "orchid:" + id;
+    }
 
     @Override
     public List<OrchidDTO.OrchidRes> getAll() {
-        return orchidRepository.findAll().stream().map(Orchid::from).toList();
+        return getAllVersioned().value();
+    }
+
+    @Override
+    public Versioned<List<OrchidDTO.OrchidRes>> getAllVersioned() {
+        return catalogCache.getVersioned(ALL_KEY,
+                                         () -> List.copyOf(orchidRepository.findAllRes()));
+    }
+
+    @Override
+    public OrchidDTO.OrchidPage getPage(OrchidQuery query, String cursor, int limit) {
+        // A cursor carries its own query so every page of a listing is ordered the same way
+        OrchidCursor after = cursor == null || cursor.isBlank()
+            ? null
+            : OrchidCursor.decode(cursor);
+        OrchidQuery effective = after == null ? query : after.query();
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        // One extra row tells us whether there is a next page without a count query
+        List<OrchidDTO.OrchidRes> rows =
+            orchidRepository.findRes(keyset(effective, after), pageSize + 1);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<OrchidDTO.OrchidRes> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext
+            ? OrchidCursor.after(effective, page.getLast()).encode()
+            : null;
+        return new OrchidDTO.OrchidPage(List.copyOf(page), nextCursor);
+    }
+
+    @Override
+    public List<OrchidDTO.OrchidHit> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        return searchIndex.search(query, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    @Override
+    public List<OrchidDTO.OrchidSuggestion> suggest(String prefix, int limit) {
+        return suggestIndex.suggest(prefix == null ? "" : prefix, limit);
+    }
+
+    @Override
+    public OrchidDTO.OrchidFacetPage getFacets(
+        OrchidDTO.OrchidFacetQuery query, int offset, int limit
+    ) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (query.priceBuckets() != null) {
+            int buckets = facetIndex.priceBuckets();
+            for (Integer bucket : query.priceBuckets()) {
+                if (bucket != null && (bucket < 0 || bucket >= buckets)) {
+                    throw new IllegalArgumentException(
+                        "Unknown price bucket " + bucket + ", expected 0 to " + (buckets - 1));
+                }
+            }
+        }
+        return facetIndex.query(query, offset, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    // Nulls rank above every value, which is PostgreSQL's btree order in both directions
+    private static List<Order> orderOf(OrchidQuery query, Root<Orchid> root, CriteriaBuilder cb) {
+        Path<Long> id = root.get("id");
+        Order byId = query.descending() ? cb.desc(id) : cb.asc(id);
+        if (query.sort() == OrchidDTO.OrchidSort.ID) {
+            return List.of(byId);
+        }
+        // Plain JPA cannot express NULLS FIRST/LAST
+        HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+        Path<?> key = root.get(attribute(query.sort()));
+        Order byKey = query.descending() ? hcb.desc(key, true) : hcb.asc(key, false);
+        return List.of(byKey, byId);
+    }
+
+    private static String attribute(OrchidDTO.OrchidSort sort) {
+        return switch (sort) {
+            case ID -> "id";
+            case PRICE -> "price";
+            case NAME -> "name";
+        };
+    }
+
+    private static Specification<Orchid> keyset(OrchidQuery query, OrchidCursor after) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (query.categoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), query.categoryId()));
+            }
+            if (query.isNatural() != null) {
+                predicates.add(cb.equal(root.get("isNatural"), query.isNatural()));
+            }
+            if (query.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), query.minPrice()));
+            }
+            if (query.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), query.maxPrice()));
+            }
+            if (after != null) {
+                predicates.add(seek(root, cb, query, after));
+            }
+            criteriaQuery.orderBy(orderOf(query, root, cb));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Rows strictly after the cursor in (sort key, id) order, with null as the largest key
+    private static Predicate seek(
+        Root<Orchid> root, CriteriaBuilder cb, OrchidQuery query, OrchidCursor after
+    ) {
+        Path<Long> id = root.get("id");
+        Predicate idAfter = query.descending()
+            ? cb.lessThan(id, after.lastId())
+            : cb.greaterThan(id, after.lastId());
+        return switch (query.sort()) {
+            case ID -> idAfter;
+            case PRICE -> seek(cb, root.get("price"), after.lastPrice(), idAfter,
+                               query.descending());
+            case NAME -> seek(cb, root.get("name"), after.lastName(), idAfter,
+                              query.descending());
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate seek(
+        CriteriaBuilder cb, Path<T> key, T last, Predicate idAfter, boolean descending
+    ) {
+        if (last == null) {
+            // Inside the block of null keys
+            return descending
+                ? cb.or(cb.and(cb.isNull(key), idAfter), cb.isNotNull(key))
+                : cb.and(cb.isNull(key), idAfter);
+        }
+        Predicate keyAfter = descending ? cb.lessThan(key, last) : cb.greaterThan(key, last);
+        Predicate tie = cb.and(cb.equal(key, last), idAfter);
+        return descending
+            ? cb.or(keyAfter, tie)
+            : cb.or(keyAfter, tie, cb.isNull(key));
     }
 
     @Override
     public OrchidDTO.OrchidRes getById(Long id) {
-        var orchid = orchidRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Orchid not found with id: " + id));
-        return Orchid.from(orchid);
+        return getByIdVersioned(id).value();
+    }
+
+    @Override
+    public Versioned<OrchidDTO.OrchidRes> getByIdVersioned(Long id) {
+        return catalogCache.getVersioned(idKey(id), () -> orchidRepository.findResById(id)
+            .orElseThrow(() -> new RuntimeException("Orchid not found with id: " + id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(OrchidDTO.OrchidExportFormat format, OutputStream out) throws IOException {
+        var writer = OrchidExportWriter.of(format, out, objectMapper);
+        try (Stream<OrchidDTO.OrchidRes> rows = orchidRepository.streamAllRes(exportFetchSize)) {
+            Iterator<OrchidDTO.OrchidRes> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+        writer.flush();
     }
 
     @Override
@@ -32,8 +220,12 @@ public class OrchidServiceImpl implements OrchidService {
         }
 
         var orchid = Orchid.toEntity(orchidDto);
-        var saved = orchidRepository.save(orchid);
-        return Orchid.from(saved);
+        var saved = Orchid.from(orchidRepository.save(orchid));
+        catalogCache.invalidate(ALL_KEY);
+        searchIndex.put(saved);
+        suggestIndex.put(saved);
+        facetIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -48,7 +240,11 @@ public class OrchidServiceImpl implements OrchidService {
         orchid.setPrice(orchidDto.price());
         orchid.setCategory(categoryService.getById(orchidDto.categoryId()));
 
-        orchidRepository.save(orchid);
+        var saved = Orchid.from(orchidRepository.save(orchid));
+        catalogCache.invalidate(ALL_KEY, idKey(id));
+        searchIndex.put(saved);
+        suggestIndex.put(saved);
+        facetIndex.put(saved);
     }
 
     @Override
@@ -56,5 +252,9 @@ public class OrchidServiceImpl implements OrchidService {
         var orchid = orchidRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Orchid not found with id: " + id));
         orchidRepository.delete(orchid);
+        catalogCache.invalidate(ALL_KEY, idKey(id));
+        searchIndex.remove(id);
+        suggestIndex.remove(id);
+        facetIndex.remove(id);
     }
 }
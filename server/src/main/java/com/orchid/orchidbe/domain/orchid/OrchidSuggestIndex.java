@@ -0,0 +1,503 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidSuggestion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefix autocomplete over orchid names.
+ * <p>
+ * Every word start of a folded name is a key, so "diep" suggests "Hồ Điệp Trắng" as well as
+ * "ho diep". The keys form a radix tree stored in flat arrays, and every node keeps the ids of
+ * its best {@value #TOP_K} orchids, ranked by units sold. A lookup only walks the query
+ * characters and copies that list, whatever the catalog size.
+ * <p>
+ * Trees are immutable and swapped in whole, so readers never lock. {@link #rebuild} builds the
+ * base tree for the full catalog. Writes made since then go to a small overlay tree, rebuilt on
+ * every write, and hide the entries they replace in the base tree.
+ */
+@Component
+public class OrchidSuggestIndex {
+
+    static final int TOP_K = 10;
+
+    // Keys are computed once per write, a rebuild only ranks and sorts
+    private record Source(Long id, String name, long popularity, String[] keys)
+        implements Comparable<Source> {
+
+        static Source of(OrchidRes orchid, Map<Long, Long> popularity) {
+            List<String> tokens = OrchidText.tokens(orchid.name());
+            String[] keys = new String[tokens.size()];
+            for (int word = 0; word < keys.length; word++) {
+                keys[word] = String.join(" ", tokens.subList(word, tokens.size()));
+            }
+            return new Source(orchid.id(), orchid.name(),
+                              popularity.getOrDefault(orchid.id(), 0L), keys);
+        }
+
+        // Same order as Entry
+        @Override
+        public int compareTo(Source other) {
+            int compared = Long.compare(other.popularity, popularity);
+            if (compared == 0) {
+                compared = Integer.compare(name.length(), other.name.length());
+            }
+            return compared != 0 ? compared : id.compareTo(other.id);
+        }
+    }
+
+    private record View(Trie base, Trie overlay, Set<Long> hidden) {
+
+    }
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile View view = new View(Trie.EMPTY, Trie.EMPTY, Set.of());
+
+    // Guarded by this
+    private Map<Long, Long> popularity = Map.of();
+    // Writes since the base tree was loaded, a null value is a removal
+    private Map<Long, OrchidRes> changes = new LinkedHashMap<>();
+    private Map<Long, OrchidRes> pending;
+
+    public List<OrchidSuggestion> suggest(String query, int limit) {
+        String key = normalize(query);
+        int count = Math.min(limit, TOP_K);
+        if (key.isEmpty() || count <= 0) {
+            return List.of();
+        }
+        View current = view;
+        List<Entry> base = current.base().lookup(key, count, current.hidden());
+        List<Entry> overlay = current.overlay().lookup(key, count, Set.of());
+        List<OrchidSuggestion> suggestions = new ArrayList<>(count);
+        int b = 0;
+        int o = 0;
+        while (suggestions.size() < count && (b < base.size() || o < overlay.size())) {
+            boolean fromBase = o == overlay.size()
+                || b < base.size() && base.get(b).compareTo(overlay.get(o)) < 0;
+            Entry entry = fromBase ? base.get(b++) : overlay.get(o++);
+            suggestions.add(new OrchidSuggestion(entry.id(), entry.name()));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Names held by the trees, including base entries replaced since the last rebuild.
+     */
+    public int size() {
+        View current = view;
+        return current.base().ids.length + current.overlay().ids.length;
+    }
+
+    /**
+     * Approximate heap used by both trees, names included.
+     */
+    public long memoryBytes() {
+        View current = view;
+        return current.base().memoryBytes() + current.overlay().memoryBytes();
+    }
+
+    public void put(OrchidRes orchid) {
+        write(orchid.id(), orchid);
+    }
+
+    public void remove(Long id) {
+        write(id, null);
+    }
+
+    /**
+     * Replaces every name and popularity score. Writes that happen while the new base tree is
+     * loaded and built stay in the overlay, so they are kept whether or not the snapshot already
+     * includes them.
+     *
+     * @param popularity units sold per orchid id, missing ids count as zero
+     */
+    public void rebuild(
+        Supplier<? extends Collection<OrchidRes>> loader, Map<Long, Long> popularity
+    ) {
+        rebuildLock.lock();
+        try {
+            Map<Long, Long> scores = Map.copyOf(popularity);
+            synchronized (this) {
+                pending = new LinkedHashMap<>();
+            }
+            Trie base;
+            try {
+                List<Source> sources = new ArrayList<>();
+                for (OrchidRes orchid : loader.get()) {
+                    sources.add(Source.of(orchid, scores));
+                }
+                base = Trie.build(sources);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                this.popularity = scores;
+                changes = pending;
+                pending = null;
+                view = withOverlay(base);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private synchronized void write(Long id, OrchidRes orchid) {
+        // Re-inserted so the map keeps its last write order
+        changes.remove(id);
+        changes.put(id, orchid);
+        if (pending != null) {
+            pending.remove(id);
+            pending.put(id, orchid);
+        }
+        view = withOverlay(view.base());
+    }
+
+    // Caller holds the monitor
+    private View withOverlay(Trie base) {
+        List<Source> sources = changes.values().stream()
+            .filter(Objects::nonNull)
+            .map(orchid -> Source.of(orchid, popularity))
+            .toList();
+        return new View(base, Trie.build(sources), Set.copyOf(changes.keySet()));
+    }
+
+    // Same folding as the keys, a trailing space is kept so "ho " only matches the whole word
+    private static String normalize(String query) {
+        List<String> tokens = OrchidText.tokens(query);
+        if (tokens.isEmpty()) {
+            return "";
+        }
+        String joined = String.join(" ", tokens);
+        return Character.isWhitespace(query.charAt(query.length() - 1)) ? joined + " " : joined;
+    }
+
+    private record Entry(long id, String name, long popularity) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int compared = Long.compare(other.popularity, popularity);
+            if (compared == 0) {
+                compared = Integer.compare(name.length(), other.name.length());
+            }
+            return compared != 0 ? compared : Long.compare(id, other.id);
+        }
+    }
+
+    private static final class Trie {
+
+        static final Trie EMPTY = build(List.of());
+
+        // Orchids ordered best first, so a smaller index always ranks higher
+        final long[] ids;
+        final String[] names;
+        final long[] popularity;
+        // Entry of every key in key order, a node covers the range [keyFrom, keyTo)
+        final int[] keyEntries;
+
+        final char[] labels;
+        final int[] labelStart;
+        final int[] labelEnd;
+        final int[] firstChild;
+        final int[] childCount;
+        final int[] keyFrom;
+        final int[] keyTo;
+        final int[] topStart;
+        final int[] topCount;
+        final int[] top;
+
+        private Trie(Source[] ranked, int[] keyEntries, Builder builder) {
+            this.ids = new long[ranked.length];
+            this.names = new String[ranked.length];
+            this.popularity = new long[ranked.length];
+            for (int entry = 0; entry < ranked.length; entry++) {
+                ids[entry] = ranked[entry].id();
+                names[entry] = ranked[entry].name();
+                popularity[entry] = ranked[entry].popularity();
+            }
+            this.keyEntries = keyEntries;
+            int nodes = builder.nodes;
+            this.labels = Arrays.copyOf(builder.labels, builder.labelLength);
+            this.labelStart = Arrays.copyOf(builder.labelStart, nodes);
+            this.labelEnd = Arrays.copyOf(builder.labelEnd, nodes);
+            this.firstChild = Arrays.copyOf(builder.firstChild, nodes);
+            this.childCount = Arrays.copyOf(builder.childCount, nodes);
+            this.keyFrom = Arrays.copyOf(builder.keyFrom, nodes);
+            this.keyTo = Arrays.copyOf(builder.keyTo, nodes);
+            this.topStart = Arrays.copyOf(builder.topStart, nodes);
+            this.topCount = Arrays.copyOf(builder.topCount, nodes);
+            this.top = Arrays.copyOf(builder.top, builder.topLength);
+        }
+
+        static Trie build(Collection<Source> sources) {
+            Source[] ranked = sources.toArray(Source[]::new);
+            Arrays.sort(ranked);
+            List<Key> keys = new ArrayList<>(ranked.length * 3);
+            for (int entry = 0; entry < ranked.length; entry++) {
+                for (String key : ranked[entry].keys()) {
+                    keys.add(new Key(key, entry));
+                }
+            }
+            keys.sort(null);
+            int[] keyEntries = new int[keys.size()];
+            for (int i = 0; i < keyEntries.length; i++) {
+                keyEntries[i] = keys.get(i).entry();
+            }
+
+            Builder builder = new Builder(keys);
+            builder.reserve(1);
+            if (!keys.isEmpty()) {
+                builder.build(0, 0, keys.size(), 0);
+            }
+            return new Trie(ranked, keyEntries, builder);
+        }
+
+        /**
+         * The best matches of {@code query} in rank order, leaving out {@code hidden} ids.
+         */
+        List<Entry> lookup(String query, int limit, Set<Long> hidden) {
+            if (ids.length == 0) {
+                return List.of();
+            }
+            int node = 0;
+            int position = 0;
+            while (true) {
+                int start = labelStart[node];
+                int length = Math.min(labelEnd[node] - start, query.length() - position);
+                for (int i = 0; i < length; i++) {
+                    if (labels[start + i] != query.charAt(position + i)) {
+                        return List.of();
+                    }
+                }
+                position += length;
+                if (position == query.length()) {
+                    return topOf(node, limit, hidden);
+                }
+                node = child(node, query.charAt(position));
+                if (node < 0) {
+                    return List.of();
+                }
+            }
+        }
+
+        private int child(int node, char c) {
+            int low = firstChild[node];
+            int high = low + childCount[node] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = labels[labelStart[mid]];
+                if (first < c) {
+                    low = mid + 1;
+                } else if (first > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private List<Entry> topOf(int node, int limit, Set<Long> hidden) {
+            int[] best = new int[limit];
+            int count = 0;
+            boolean skipped = false;
+            for (int i = 0; i < topCount[node] && count < limit; i++) {
+                int entry = top[topStart[node] + i];
+                if (hidden.isEmpty() || !hidden.contains(ids[entry])) {
+                    best[count++] = entry;
+                } else {
+                    skipped = true;
+                }
+            }
+            // Hidden entries emptied a truncated list, so the node's keys are scanned instead
+            if (skipped && count < limit && topCount[node] == TOP_K) {
+                count = scan(node, best, hidden);
+            }
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(ids[best[i]], names[best[i]], popularity[best[i]]));
+            }
+            return entries;
+        }
+
+        // Smallest visible entries of the node's key range, kept sorted in best
+        private int scan(int node, int[] best, Set<Long> hidden) {
+            int count = 0;
+            for (int key = keyFrom[node]; key < keyTo[node]; key++) {
+                int entry = keyEntries[key];
+                if (count == best.length && entry >= best[count - 1]) {
+                    continue;
+                }
+                int at = Arrays.binarySearch(best, 0, count, entry);
+                if (at >= 0 || hidden.contains(ids[entry])) {
+                    continue;
+                }
+                at = -at - 1;
+                int moved = Math.min(count, best.length - 1) - at;
+                System.arraycopy(best, at, best, at + 1, moved);
+                best[at] = entry;
+                count = Math.min(count + 1, best.length);
+            }
+            return count;
+        }
+
+        long memoryBytes() {
+            long bytes = 2 * (16L + ids.length * 8L) + 16L + names.length * 4L;
+            for (String name : names) {
+                bytes += 40L + name.length() * 2L;
+            }
+            bytes += 16L + keyEntries.length * 4L + 16L + labels.length * 2L;
+            bytes += 8 * (16L + labelStart.length * 4L) + 16L + top.length * 4L;
+            return bytes;
+        }
+    }
+
+    private record Key(String text, int entry) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int compared = text.compareTo(other.text);
+            return compared != 0 ? compared : Integer.compare(entry, other.entry);
+        }
+    }
+
+    // Growable node arrays, children of a node always get consecutive indices
+    private static final class Builder {
+
+        final List<Key> keys;
+        char[] labels = new char[256];
+        int labelLength;
+        int[] labelStart = new int[64];
+        int[] labelEnd = new int[64];
+        int[] firstChild = new int[64];
+        int[] childCount = new int[64];
+        int[] keyFrom = new int[64];
+        int[] keyTo = new int[64];
+        int[] topStart = new int[64];
+        int[] topCount = new int[64];
+        int nodes;
+        int[] top = new int[256];
+        int topLength;
+
+        Builder(List<Key> keys) {
+            this.keys = keys;
+        }
+
+        void reserve(int count) {
+            int needed = nodes + count;
+            if (needed > labelStart.length) {
+                int capacity = Math.max(needed, labelStart.length * 2);
+                labelStart = Arrays.copyOf(labelStart, capacity);
+                labelEnd = Arrays.copyOf(labelEnd, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                keyFrom = Arrays.copyOf(keyFrom, capacity);
+                keyTo = Arrays.copyOf(keyTo, capacity);
+                topStart = Arrays.copyOf(topStart, capacity);
+                topCount = Arrays.copyOf(topCount, capacity);
+            }
+            nodes = needed;
+        }
+
+        /**
+         * Fills {@code node} for the sorted keys in [from, to), which share their first
+         * {@code depth} characters, and returns its ranked top entries.
+         */
+        int[] build(int node, int from, int to, int depth) {
+            String first = keys.get(from).text();
+            String last = keys.get(to - 1).text();
+            int end = depth;
+            while (end < first.length() && end < last.length()
+                && first.charAt(end) == last.charAt(end)) {
+                end++;
+            }
+            labelStart[node] = appendLabel(first, depth, end);
+            labelEnd[node] = labelLength;
+            keyFrom[node] = from;
+            keyTo[node] = to;
+
+            // Keys ending at this node sort before the longer ones
+            int entries = 0;
+            int[] candidates = new int[TOP_K];
+            int i = from;
+            while (i < to && keys.get(i).text().length() == end) {
+                if (entries < TOP_K) {
+                    candidates[entries++] = keys.get(i).entry();
+                }
+                i++;
+            }
+            candidates = Arrays.copyOf(candidates, entries);
+
+            int groups = 0;
+            for (int j = i; j < to; j++) {
+                if (j == i || keys.get(j).text().charAt(end)
+                    != keys.get(j - 1).text().charAt(end)) {
+                    groups++;
+                }
+            }
+            int child = nodes;
+            reserve(groups);
+            firstChild[node] = child;
+            childCount[node] = groups;
+            while (i < to) {
+                char c = keys.get(i).text().charAt(end);
+                int j = i + 1;
+                while (j < to && keys.get(j).text().charAt(end) == c) {
+                    j++;
+                }
+                candidates = best(candidates, build(child++, i, j, end));
+                i = j;
+            }
+
+            if (topLength + candidates.length > top.length) {
+                top = Arrays.copyOf(top, Math.max(top.length * 2,
+                                                  topLength + candidates.length));
+            }
+            topStart[node] = topLength;
+            topCount[node] = candidates.length;
+            System.arraycopy(candidates, 0, top, topLength, candidates.length);
+            topLength += candidates.length;
+            return candidates;
+        }
+
+        private int appendLabel(String key, int from, int to) {
+            int start = labelLength;
+            if (labelLength + (to - from) > labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(labels.length * 2,
+                                                        labelLength + (to - from)));
+            }
+            key.getChars(from, to, labels, labelLength);
+            labelLength += to - from;
+            return start;
+        }
+
+        // Up to TOP_K smallest distinct entries of both, an orchid can reach a node twice
+        private static int[] best(int[] a, int[] b) {
+            int[] merged = new int[Math.min(a.length + b.length, TOP_K)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (count < merged.length && (i < a.length || j < b.length)) {
+                int next = j == b.length || i < a.length && a[i] <= b[j] ? a[i++] : b[j++];
+                if (count == 0 || merged[count - 1] != next) {
+                    merged[count++] = next;
+                }
+            }
+            return count == merged.length ? merged : Arrays.copyOf(merged, count);
+        }
+    }
+
+}
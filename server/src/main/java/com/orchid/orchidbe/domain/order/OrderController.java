@@ -1,14 +1,15 @@
 package com.orchid.orchidbe.domain.order;
 
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
 import com.orchid.orchidbe.apis.MyApiResponse;
 import com.orchid.orchidbe.domain.account.Account;
 import com.orchid.orchidbe.domain.order.OrderDTO.OrderRes;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -27,19 +28,19 @@ public class OrderController {
     private final OrderService orderService;
 
     @GetMapping("")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<List<OrderDTO.OrderRes>>> getOrders() {
         return MyApiResponse.success(orderService.getAll());
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<OrderRes>> getOrderById(@PathVariable Long id) {
         return MyApiResponse.success(orderService.getById(id));
     }
 
     @PostMapping
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Void>> createOrder(
         @RequestBody @Valid OrderDTO.OrderReq orderReq
     ) {
@@ -48,7 +49,7 @@ public class OrderController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<Void>> updateOrder(
         @PathVariable Long id, @RequestBody OrderDTO.OrderReq orderReq
     ) {
@@ -57,7 +58,7 @@ public class OrderController {
     }
 
     @GetMapping("/me/orders")
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_USER', 'ROLE_STAFF', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.USER, RoleName.STAFF, RoleName.MANAGER})
     public ResponseEntity<MyApiResponse<List<OrderDTO.OrderRes>>> getMyOrders(
         Authentication authentication) {
         Account account = (Account) authentication.getPrincipal(); // principal là chính user từ token
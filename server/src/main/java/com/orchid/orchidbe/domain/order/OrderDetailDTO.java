@@ -10,6 +10,12 @@ public interface OrderDetailDTO {
     ) {
     }
 
+    record OrchidSales(
+        Long orchidId,
+        Long quantity
+    ) {
+    }
+
     record OrderDetailRes(
         Integer id,
         Integer orderId,
@@ -10,11 +10,14 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.SequenceGenerator;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 @Entity(name = "roles")
 @Getter
@@ -36,7 +39,22 @@ public class Role {
         MANAGER,
 
         @Schema(description = "Admin role")
-        ADMIN
+        ADMIN;
+
+        // Immutable and shared by every account with this role
+        private final List<GrantedAuthority> authorities =
+            List.of(new SimpleGrantedAuthority("ROLE_" + name()));
+
+        public List<GrantedAuthority> authorities() {
+            return authorities;
+        }
+
+        /**
+         * Bit of this role in the masks checked by {@code RoleAuthorizationManager}.
+         */
+        public int mask() {
+            return 1 << ordinal();
+        }
     }
 
     @Id
@@ -1,13 +1,14 @@
 package com.orchid.orchidbe.domain.role;
 
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
 import com.orchid.orchidbe.apis.MyApiResponse;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -25,19 +26,19 @@ public class RoleController {
 
     private final RoleService roleService;
 
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @GetMapping
     public ResponseEntity<MyApiResponse<List<Role>>> getAll() {
         return MyApiResponse.success(roleService.getAll());
     }
 
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @GetMapping("/{id}")
     public ResponseEntity<MyApiResponse<Role>> getById(@PathVariable Long id) {
         return MyApiResponse.success(roleService.getById(id));
     }
 
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @PostMapping
     @Operation(
         summary = "Create a new role",
@@ -56,14 +57,14 @@ public class RoleController {
         return MyApiResponse.created();
     }
 
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Long id, @RequestBody RoleDTO.RoleReq req) {
         roleService.update(id, req);
         return MyApiResponse.updated();
     }
 
-    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(@PathVariable Long id) {
         roleService.delete(id);
@@ -0,0 +1,126 @@
+package com.orchid.orchidbe.domain.token;
+
+import com.orchid.orchidbe.repositories.TokenRepository;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory map of refresh token digest to session, backed by the {@code tokens} table.
+ * <p>
+ * A refresh resolves its session with a single map lookup and only reads the table on a cold
+ * miss. Refresh tokens that have been rotated out are remembered together with their session
+ * (the token "family"), so presenting one again is recognised as reuse. That memory is per node
+ * and does not survive a restart; after that an old refresh token is simply unknown.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenStore {
+
+    /**
+     * Snapshot of one {@code tokens} row. The account's email and role are deliberately not kept,
+     * they can change while the session lives and are re-read on every refresh.
+     */
+    public record Session(
+        Long tokenId,
+        Long accountId,
+        String accessToken,
+        LocalDateTime accessExpiresAt,
+        LocalDateTime refreshExpiresAt,
+        boolean mobile,
+        boolean revoked
+    ) {
+
+        static Session from(Token token) {
+            return new Session(
+                token.getId(),
+                token.getAccount() == null ? null : token.getAccount().getId(),
+                token.getToken(),
+                token.getExpirationDate(),
+                token.getRefreshExpirationDate(),
+                token.isMobile(),
+                token.isRevoked()
+            );
+        }
+
+        public boolean isRefreshExpired() {
+            return refreshExpiresAt != null && refreshExpiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+
+    private record Rotated(Long tokenId, LocalDateTime until) {
+
+    }
+
+    private final TokenRepository tokenRepository;
+
+    @Value("${jwt.refresh-store.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Rotated> rotated = new ConcurrentHashMap<>();
+
+    public Optional<Session> find(String refreshTokenHash) {
+        Session session = sessions.get(refreshTokenHash);
+        if (session != null) {
+            return Optional.of(session);
+        }
+        Optional<Session> loaded = tokenRepository.findByRefreshTokenHash(refreshTokenHash)
+            .map(Session::from);
+        loaded.ifPresent(s -> put(sessions, refreshTokenHash, s));
+        return loaded;
+    }
+
+    /**
+     * @return id of the session the refresh token used to belong to, if it was rotated out
+     */
+    public Optional<Long> findRotatedFamily(String refreshTokenHash) {
+        Rotated entry = rotated.get(refreshTokenHash);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.until() != null && entry.until().isBefore(LocalDateTime.now())) {
+            rotated.remove(refreshTokenHash, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.tokenId());
+    }
+
+    public void rotate(String oldRefreshTokenHash, String newRefreshTokenHash, Session session) {
+        sessions.remove(oldRefreshTokenHash);
+        put(rotated, oldRefreshTokenHash,
+            new Rotated(session.tokenId(), session.refreshExpiresAt()));
+        put(sessions, newRefreshTokenHash, session);
+    }
+
+    public void evict(String refreshTokenHash) {
+        if (refreshTokenHash != null) {
+            sessions.remove(refreshTokenHash);
+        }
+    }
+
+    /**
+     * Drops every cached refresh token of the session, current and rotated.
+     */
+    public void evictFamily(Long tokenId) {
+        sessions.values().removeIf(session -> session.tokenId().equals(tokenId));
+        rotated.values().removeIf(entry -> entry.tokenId().equals(tokenId));
+    }
+
+    private <V> void put(Map<String, V> entries, String key, V value) {
+        if (entries.size() >= maxEntries) {
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(key, value);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.orchid.orchidbe.domain.token;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.orchid.orchidbe.domain.account.Account;
@@ -8,10 +9,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -19,6 +28,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity(name = "tokens")
+@Table(indexes = @Index(name = "tokens_account_id_idx", columnList = "account_id"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -34,8 +44,19 @@ public class Token {
     @JsonProperty("id")
     private Long id;
 
+    @Column(length = 2048)
     private String token;
     private String refreshToken;
+
+    // SHA-256 hex digests of the tokens above, every lookup goes through these unique indexes
+    @JsonIgnore
+    @Column(name = "token_hash", length = 64, unique = true)
+    private String tokenHash;
+
+    @JsonIgnore
+    @Column(name = "refresh_token_hash", length = 64, unique = true)
+    private String refreshTokenHash;
+
     private String tokenType;
     private LocalDateTime expirationDate;
     private LocalDateTime refreshExpirationDate;
@@ -47,4 +68,24 @@ public class Token {
     @JoinColumn(name = "account_id", referencedColumnName = "id")
     private Account account;
 
+    @PrePersist
+    @PreUpdate
+    void updateDigests() {
+        this.tokenHash = digest(token);
+        this.refreshTokenHash = digest(refreshToken);
+    }
+
+    public static String digest(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
 }
@@ -6,7 +6,15 @@ public interface TokenService {
 
     Token addToken(Long userId, String token, boolean isMobileDevice);
 
-    Token refreshToken(String refreshToken, Account user) throws Exception;
+    Token addToken(Account user, String token, boolean isMobileDevice);
+
+    /**
+     * Rotates the refresh token and returns the session with its new token pair. The account is
+     * read again from the database, and the new access token is signed with its current role;
+     * a disabled, locked or deleted account revokes the session instead. The returned token is
+     * built for the response, not loaded, so changes to it are not persisted.
+     */
+    Token refreshToken(String refreshToken) throws Exception;
 
     void deleteToken(String token, Account user);
 
@@ -1,20 +1,24 @@
 package com.orchid.orchidbe.domain.token;
 
 import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.components.TokenRevocationIndex;
 import com.orchid.orchidbe.domain.account.Account;
 import com.orchid.orchidbe.domain.account.AccountService;
 import com.orchid.orchidbe.exceptions.ExpiredTokenException;
 import com.orchid.orchidbe.exceptions.TokenNotFoundException;
+import com.orchid.orchidbe.repositories.AccountRepository;
 import com.orchid.orchidbe.repositories.TokenRepository;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @Slf4j
@@ -31,32 +35,106 @@ public class TokenServiceImpl implements TokenService {
     private int expirationRefreshToken;
 
     private final TokenRepository tokenRepository;
+    private final AccountRepository accountRepository;
     private final JwtTokenUtils jwtTokenUtil;
+    private final TokenRevocationIndex revocationIndex;
+    private final RefreshTokenStore refreshTokenStore;
 
-    @Transactional
+    // Revoking a replayed family must survive the 401 that follows it
+    @Transactional(noRollbackFor = ResponseStatusException.class)
     @Override
-    public Token refreshToken(String refreshToken, Account user) throws Exception {
-        Token existingToken = tokenRepository.findByRefreshToken(refreshToken)
+    public Token refreshToken(String refreshToken) throws Exception {
+        String refreshTokenHash = Token.digest(refreshToken);
+
+        // A refresh token that was already rotated out is being replayed: kill the whole family
+        Optional<Long> family = refreshTokenStore.findRotatedFamily(refreshTokenHash);
+        if (family.isPresent()) {
+            revokeFamily(family.get());
+            throw new ResponseStatusException(
+                HttpStatus.UNAUTHORIZED, "Refresh token reuse detected, session revoked");
+        }
+
+        RefreshTokenStore.Session session = refreshTokenStore.find(refreshTokenHash)
             .orElseThrow(() -> new TokenNotFoundException("Refresh token does not exist"));
 
-        if (existingToken.getRefreshExpirationDate().isBefore(LocalDateTime.now())) {
-            tokenRepository.delete(existingToken);
+        if (session.revoked()) {
+            refreshTokenStore.evict(refreshTokenHash);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Session has been revoked");
+        }
+
+        if (session.isRefreshExpired()) {
+            tokenRepository.deleteById(session.tokenId());
+            refreshTokenStore.evict(refreshTokenHash);
+            revocationIndex.revoke(session.accessToken(), session.accessExpiresAt());
             throw new ExpiredTokenException("Refresh token is expired");
         }
+
+        // The role or status may have changed since login, never mint from what was cached then
+        Account user = Optional.ofNullable(session.accountId())
+            .flatMap(accountRepository::findById)
+            .filter(account -> account.isEnabled() && account.isAccountNonLocked())
+            .orElse(null);
+        if (user == null) {
+            tokenRepository.revokeById(session.tokenId());
+            refreshTokenStore.evictFamily(session.tokenId());
+            revocationIndex.revoke(session.accessToken(), session.accessExpiresAt());
+            throw new ResponseStatusException(
+                HttpStatus.UNAUTHORIZED, "Account is disabled or no longer exists");
+        }
+
         String token = jwtTokenUtil.generateToken(user);
+        String newRefreshToken = UUID.randomUUID().toString();
         LocalDateTime expirationDateTime = LocalDateTime.now().plusSeconds(expiration);
-        existingToken.setExpirationDate(expirationDateTime);
-        existingToken.setToken(token);
-        existingToken.setRefreshToken(UUID.randomUUID().toString());
-        existingToken.setRefreshExpirationDate(
-            LocalDateTime.now().plusSeconds(expirationRefreshToken));
-        return existingToken;
+        LocalDateTime refreshExpirationDateTime =
+            LocalDateTime.now().plusSeconds(expirationRefreshToken);
+
+        int rotated = tokenRepository.rotate(
+            session.tokenId(), refreshTokenHash,
+            token, Token.digest(token),
+            newRefreshToken, Token.digest(newRefreshToken),
+            expirationDateTime, refreshExpirationDateTime);
+        if (rotated == 0) {
+            // Someone else rotated or revoked it first, treat it like a replay
+            revokeFamily(session.tokenId());
+            throw new ResponseStatusException(
+                HttpStatus.UNAUTHORIZED, "Refresh token reuse detected, session revoked");
+        }
+
+        // The previous access token is replaced, so it must stop validating
+        revocationIndex.revoke(session.accessToken(), session.accessExpiresAt());
+        revocationIndex.markActive(token, expirationDateTime);
+
+        RefreshTokenStore.Session rotatedSession = new RefreshTokenStore.Session(
+            session.tokenId(), session.accountId(), token, expirationDateTime,
+            refreshExpirationDateTime, session.mobile(), false);
+        refreshTokenStore.rotate(refreshTokenHash, Token.digest(newRefreshToken), rotatedSession);
+
+        return Token.builder()
+            .id(session.tokenId())
+            .account(user)
+            .token(token)
+            .refreshToken(newRefreshToken)
+            .tokenType("Bearer")
+            .expirationDate(expirationDateTime)
+            .refreshExpirationDate(refreshExpirationDateTime)
+            .isMobile(session.mobile())
+            .revoked(false)
+            .expired(false)
+            .build();
+    }
+
+    private void revokeFamily(Long tokenId) {
+        tokenRepository.findById(tokenId).ifPresent(existingToken -> revocationIndex.revoke(
+            existingToken.getToken(), existingToken.getExpirationDate()));
+        tokenRepository.revokeById(tokenId);
+        refreshTokenStore.evictFamily(tokenId);
+        log.warn("Refresh token reuse detected, revoked session {}", tokenId);
     }
 
     //do revoke token
     @Override
     public void deleteToken(String token, Account user) {
-        Token existingToken = tokenRepository.findByToken(token)
+        Token existingToken = tokenRepository.findByTokenHash(Token.digest(token))
             .orElseThrow(() -> new TokenNotFoundException("Token does not exist"));
 
         if (existingToken.isRevoked()) {
@@ -69,37 +147,42 @@ public class TokenServiceImpl implements TokenService {
         }
         existingToken.setRevoked(true);
         tokenRepository.save(existingToken);
+        refreshTokenStore.evict(existingToken.getRefreshTokenHash());
+        revocationIndex.revoke(existingToken.getToken(), existingToken.getExpirationDate());
     }
 
     @Override
     public Token findAccountByToken(String token) {
-        return tokenRepository.findByToken(token)
+        return tokenRepository.findByTokenHash(Token.digest(token))
             .orElseThrow(() -> new TokenNotFoundException("Token does not exist"));
     }
 
     @Transactional
     @Override
     public Token addToken(Long userId, String token, boolean isMobileDevice) {
-        Account existingUser = accountService.getById(userId);
-        List<Token> userTokens = tokenRepository.findByAccountId(existingUser.getId());
-        int tokenCount = userTokens.size();
-        // Số lượng token vượt quá giới hạn, xóa một token cũ
-        if (tokenCount >= MAX_TOKENS) {
-            //kiểm tra xem trong danh sách userTokens có tồn tại ít nhất
-            //một token không phải là thiết bị di động (non-mobile)
-            boolean hasNonMobileToken = !userTokens.stream().allMatch(Token::isMobile);
-            Token tokenToDelete;
-            if (hasNonMobileToken) {
-                tokenToDelete = userTokens.stream()
-                    .filter(userToken -> !userToken.isMobile())
-                    .findFirst()
-                    .orElse(userTokens.get(0));
-            } else {
-                //tất cả các token đều là thiết bị di động,
-                //chúng ta sẽ xóa token đầu tiên trong danh sách
-                tokenToDelete = userTokens.get(0);
+        return addToken(accountService.getById(userId), token, isMobileDevice);
+    }
+
+    @Transactional
+    @Override
+    public Token addToken(Account existingUser, String token, boolean isMobileDevice) {
+        // Concurrent logins of the same user queue up here, so the cap below cannot be overrun
+        accountRepository.lockById(existingUser.getId());
+
+        long tokenCount = tokenRepository.countByAccountId(existingUser.getId());
+        // Số lượng token vượt quá giới hạn, xóa token cũ
+        // (ưu tiên token không phải thiết bị di động, sau đó là token cũ nhất)
+        for (long count = tokenCount; count >= MAX_TOKENS; count--) {
+            Token tokenToDelete = tokenRepository
+                .findFirstByAccountIdOrderByIsMobileAscIdAsc(existingUser.getId())
+                .orElse(null);
+            if (tokenToDelete == null) {
+                break;
             }
             tokenRepository.delete(tokenToDelete);
+            refreshTokenStore.evict(tokenToDelete.getRefreshTokenHash());
+            revocationIndex.revoke(tokenToDelete.getToken(),
+                                        tokenToDelete.getExpirationDate());
         }
         long expirationInSeconds = expiration;
         LocalDateTime expirationDateTime = LocalDateTime.now().plusSeconds(expirationInSeconds);
@@ -117,6 +200,7 @@ public class TokenServiceImpl implements TokenService {
         newToken.setRefreshToken(UUID.randomUUID().toString());
         newToken.setRefreshExpirationDate(LocalDateTime.now().plusSeconds(expirationRefreshToken));
         tokenRepository.save(newToken);
+        revocationIndex.markActive(token, expirationDateTime);
         return newToken;
     }
 }
@@ -0,0 +1,137 @@
+package com.orchid.orchidbe.domain.token;
+
+import com.orchid.orchidbe.repositories.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically removes revoked sessions and sessions whose refresh token has expired.
+ * <p>
+ * Rows are deleted in batches of {@code jwt.sweeper.batch-size} with a pause between batches so
+ * the sweep never holds long locks on {@code tokens}. On PostgreSQL a session advisory lock makes
+ * sure only one node sweeps at a time, other databases are assumed to be single node.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenSweeper {
+
+    // Arbitrary, but must be the same on every node
+    private static final long ADVISORY_LOCK_KEY = 0x0DC1D5EEL;
+
+    private final TokenRepository tokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jwt.sweeper.max-batches:200}")
+    private int maxBatches;
+
+    @Value("${jwt.sweeper.batch-pause:100}")
+    private long batchPauseMillis;
+
+    private Counter removed;
+    private Timer runs;
+
+    @PostConstruct
+    void init() {
+        removed = Counter.builder("auth.token.sweeper.removed")
+            .description("Token rows deleted by the sweeper")
+            .register(meterRegistry);
+        runs = Timer.builder("auth.token.sweeper.runs")
+            .description("Duration of sweeper runs")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${jwt.sweeper.initial-delay:PT5M}",
+        fixedDelayString = "${jwt.sweeper.interval:PT1H}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        runs.record(() -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!tryLock(connection)) {
+                log.debug("Token sweep skipped, another node holds the lock");
+                return null;
+            }
+            try {
+                sweepBatches();
+            } finally {
+                unlock(connection);
+            }
+            return null;
+        }));
+    }
+
+    private void sweepBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = tokenRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+            removed.increment(deleted);
+            if (deleted < batchSize) {
+                break;
+            }
+            pause();
+        }
+        if (total > 0) {
+            log.info("Token sweep removed {} expired or revoked sessions", total);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        if (!isPostgres(connection)) {
+            return true;
+        }
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        if (!isPostgres(connection)) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            ps.execute();
+        }
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.orchid.orchidbe.filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.apis.MyApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Token-bucket limiter for the unauthenticated, BCrypt-heavy endpoints ({@code /auth/login} and
+ * {@code /auth/register}), applied per client IP and per email in the request body.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA
+ * form of a token bucket), so taking a token is one CAS and needs no lock. Full buckets carry no
+ * information, which is what lets the key maps be trimmed when they reach their bound.
+ * <p>
+ * The body is buffered to read the email, so it is capped at {@code max-body-size} and anything
+ * larger is refused with 413. The client IP is {@link HttpServletRequest#getRemoteAddr()}, which
+ * only reflects {@code X-Forwarded-For} from the trusted proxies configured under
+ * {@code server.tomcat.remoteip}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${api.prefix}")
+    private String apiPrefix;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.ip-capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.rate-limit.ip-refill-period:PT1M}")
+    private Duration ipRefillPeriod;
+
+    @Value("${security.rate-limit.email-capacity:5}")
+    private int emailCapacity;
+
+    @Value("${security.rate-limit.email-refill-period:PT1M}")
+    private Duration emailRefillPeriod;
+
+    @Value("${security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${security.rate-limit.max-body-size:8192}")
+    private int maxBodySize;
+
+    private final Map<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> emailBuckets = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.equals(apiPrefix + "/auth/login")
+            && !path.equals(apiPrefix + "/auth/register");
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String endpoint = request.getRequestURI().endsWith("/login") ? "login" : "register";
+
+        if (!tryAcquire(ipBuckets, request.getRemoteAddr(), ipCapacity, ipRefillPeriod)) {
+            reject(request, response, endpoint, "ip", ipRefillPeriod);
+            return;
+        }
+
+        // Credentials are tiny, refuse large bodies before buffering them
+        if (request.getContentLengthLong() > maxBodySize) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+            return;
+        }
+        // The body can only be read once, keep it so the controller still gets it
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        String email = extractEmail(body);
+        if (email != null
+            && !tryAcquire(emailBuckets, email, emailCapacity, emailRefillPeriod)) {
+            reject(request, response, endpoint, "email", emailRefillPeriod);
+            return;
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private boolean tryAcquire(
+        Map<String, AtomicLong> buckets, String key, int capacity, Duration refillPeriod
+    ) {
+        if (key == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long interval = refillPeriod.toNanos() / capacity;
+        long burst = interval * (capacity - 1);
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                trim(buckets, now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long start = Math.max(tat, now);
+            if (start - now > burst) {
+                return false;
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    // Buckets whose arrival time has passed are full again and can be forgotten
+    private void trim(Map<String, AtomicLong> buckets, long now) {
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        Iterator<String> it = buckets.keySet().iterator();
+        while (buckets.size() >= maxKeys && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email == null || !email.isTextual()
+                ? null
+                : email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            // Malformed JSON is rejected by the controller anyway
+            return null;
+        }
+    }
+
+    private void reject(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        String endpoint,
+        String limitedBy,
+        Duration refillPeriod
+    ) throws IOException {
+        meterRegistry.counter("auth.rate_limit.rejections",
+                              "endpoint", endpoint, "key", limitedBy).increment();
+        log.warn("Rate limited {} request from {} (by {})",
+                 endpoint, request.getRemoteAddr(), limitedBy);
+
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, refillPeriod.toSeconds())));
+        reject(request, response, HttpStatus.TOO_MANY_REQUESTS,
+               "Too many attempts, please try again later");
+    }
+
+    private void reject(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        HttpStatus status,
+        String message
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
+
+        MyApiResponse<Object> errorResponse = new MyApiResponse.Error<>(
+            status.value(),
+            status.getReasonPhrase(),
+            message,
+            request.getRequestURI(),
+            Instant.now()
+        );
+
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Everything is already in memory, so the data is available right away
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                                                            StandardCharsets.UTF_8));
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.orchid.orchidbe.filters;
 
 import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.components.VerifiedJwt;
 import com.orchid.orchidbe.domain.account.Account;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -38,15 +39,19 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // Extract and validate token
+            // Verify the token once and share the claims with the rest of the request
             final String token = authHeader.substring(7);
-            final String email = jwtTokenUtil.extractEmail(token);
+            final VerifiedJwt verifiedJwt = jwtTokenUtil.verify(token);
+            request.setAttribute(VerifiedJwt.REQUEST_ATTRIBUTE, verifiedJwt);
+            final String email = verifiedJwt.email();
 
             // If we have an email and no authentication exists yet, validate the token
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Account userDetails = (Account) userDetailsService.loadUserByUsername(email);
+                Account userDetails = jwtTokenUtil.isStateless() && verifiedJwt.role() != null
+                    ? verifiedJwt.toPrincipal()
+                    : (Account) userDetailsService.loadUserByUsername(email);
 
-                if (jwtTokenUtil.validateToken(token, userDetails)) {
+                if (jwtTokenUtil.validateToken(verifiedJwt, userDetails)) {
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
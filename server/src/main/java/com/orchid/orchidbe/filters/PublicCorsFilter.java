@@ -0,0 +1,132 @@
+package com.orchid.orchidbe.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * CORS for the anonymous catalog chain. Same policy as the main chain, but every header value is
+ * rendered once up front, so a request costs a set lookup and a few {@code setHeader} calls
+ * instead of a full {@code CorsProcessor} pass.
+ * <p>
+ * Behaves like Spring's {@code DefaultCorsProcessor}: {@code Vary} goes on every response,
+ * same-origin requests pass untouched and a preflight must ask for an allowed method and
+ * headers. Only supports explicit origin and method lists, which is what
+ * {@code WebSecurityConfig} configures.
+ */
+public class PublicCorsFilter extends OncePerRequestFilter {
+
+    private static final String VARY = String.join(", ",
+        HttpHeaders.ORIGIN,
+        HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
+        HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+    private final Set<String> allowedOrigins;
+    private final Set<String> allowedMethodSet;
+    private final Set<String> allowedHeaderSet;
+    private final boolean anyHeader;
+    private final boolean allowCredentials;
+    private final String allowedMethods;
+    private final String allowedHeaders;
+    private final String exposedHeaders;
+    private final String maxAge;
+
+    public PublicCorsFilter(CorsConfiguration configuration) {
+        this.allowedOrigins = Set.copyOf(configuration.getAllowedOrigins());
+        this.allowCredentials = Boolean.TRUE.equals(configuration.getAllowCredentials());
+        this.allowedMethodSet = Set.copyOf(configuration.getAllowedMethods());
+        this.allowedHeaderSet = configuration.getAllowedHeaders() == null ? Set.of()
+            : configuration.getAllowedHeaders().stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.anyHeader = allowedHeaderSet.contains(CorsConfiguration.ALL);
+        this.allowedMethods =
+            StringUtils.collectionToCommaDelimitedString(configuration.getAllowedMethods());
+        this.allowedHeaders =
+            StringUtils.collectionToCommaDelimitedString(configuration.getAllowedHeaders());
+        this.exposedHeaders =
+            StringUtils.collectionToCommaDelimitedString(configuration.getExposedHeaders());
+        this.maxAge = String.valueOf(configuration.getMaxAge());
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, VARY);
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        if (origin == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!allowedOrigins.contains(origin)) {
+            if (CorsUtils.isCorsRequest(request)) {
+                reject(response);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+
+        boolean preflight = CorsUtils.isPreFlightRequest(request);
+        if (preflight && !allowsPreflight(request)) {
+            reject(response);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+        if (allowCredentials) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        }
+
+        if (preflight) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, allowedMethods);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, allowedHeaders);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+            response.setStatus(HttpServletResponse.SC_OK);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, exposedHeaders);
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean allowsPreflight(HttpServletRequest request) {
+        String method = request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+        if (!allowedMethodSet.contains(method.trim().toUpperCase(Locale.ROOT))) {
+            return false;
+        }
+        if (anyHeader) {
+            return true;
+        }
+        var requestedHeaders = request.getHeaders(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+        while (requestedHeaders.hasMoreElements()) {
+            for (String header : StringUtils.tokenizeToStringArray(
+                requestedHeaders.nextElement(), ",")) {
+                if (!allowedHeaderSet.contains(header.toLowerCase(Locale.ROOT))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Invalid CORS request");
+    }
+
+}
@@ -1,8 +1,12 @@
 package com.orchid.orchidbe.repositories;
 
 import com.orchid.orchidbe.domain.account.Account;
+import jakarta.persistence.LockModeType;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -11,5 +15,10 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     boolean existsByEmailAndIdNot(String email, Long id);
     Optional<Account> findByEmail(String email);
 
+    // Row lock on the account only (SELECT ... FOR UPDATE), used to serialize per-user writes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.id FROM accounts a WHERE a.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
 
 }
@@ -1,9 +1,27 @@
 package com.orchid.orchidbe.repositories;
 
 import com.orchid.orchidbe.domain.orchid.Orchid;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 
-public interface OrchidRepository extends JpaRepository<Orchid, Long> {
+public interface OrchidRepository extends JpaRepository<Orchid, Long>,
+    OrchidRepositoryCustom {
+
+    // Projections for the catalog read path: one select, no managed entities, no category loads
+    String ORCHID_RES = """
+        SELECT new com.orchid.orchidbe.domain.orchid.OrchidDTO$OrchidRes(
+            o.id, o.isNatural, o.description, o.name, o.url, o.price, o.category.id)
+        FROM orchids o""";
+
+    @Query(ORCHID_RES + " ORDER BY o.id")
+    List<OrchidRes> findAllRes();
+
+    @Query(ORCHID_RES + " WHERE o.id = :id")
+    Optional<OrchidRes> findResById(Long id);
+
     boolean existsByName(String name);
 }
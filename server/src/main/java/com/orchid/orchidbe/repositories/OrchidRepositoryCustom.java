@@ -0,0 +1,24 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.domain.orchid.Orchid;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface OrchidRepositoryCustom {
+
+    /**
+     * Orchids matching {@code spec}, which may also set the ordering, projected straight into
+     * {@link OrchidRes} by one select. Nothing is loaded into the persistence context.
+     */
+    List<OrchidRes> findRes(Specification<Orchid> spec, int limit);
+
+    /**
+     * Every orchid in id order, read through a database cursor {@code fetchSize} rows at a time.
+     * Must be consumed and closed inside a transaction: PostgreSQL only honours the fetch size
+     * with autocommit off, and otherwise sends the whole result at once.
+     */
+    Stream<OrchidRes> streamAllRes(int fetchSize);
+
+}
@@ -0,0 +1,52 @@
+package com.orchid.orchidbe.repositories;
+
+import com.orchid.orchidbe.domain.orchid.Orchid;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+@RequiredArgsConstructor
+public class OrchidRepositoryCustomImpl implements OrchidRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<OrchidRes> findRes(Specification<Orchid> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrchidRes> query = cb.createQuery(OrchidRes.class);
+        Root<Orchid> root = query.from(Orchid.class);
+
+        // category.id is read from the foreign key column, no join to categories
+        query.select(cb.construct(
+            OrchidRes.class,
+            root.get("id"),
+            root.get("isNatural"),
+            root.get("description"),
+            root.get("name"),
+            root.get("url"),
+            root.get("price"),
+            root.get("category").get("id")));
+        query.where(spec.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public Stream<OrchidRes> streamAllRes(int fetchSize) {
+        return entityManager.createQuery(OrchidRepository.ORCHID_RES + " ORDER BY o.id",
+                                         OrchidRes.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+}
@@ -1,8 +1,22 @@
 package com.orchid.orchidbe.repositories;
 
+import com.orchid.orchidbe.domain.order.Order.OrderStatus;
 import com.orchid.orchidbe.domain.order.OrderDetail;
+import com.orchid.orchidbe.domain.order.OrderDetailDTO.OrchidSales;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long> {
 
+    @Query("""
+        SELECT new com.orchid.orchidbe.domain.order.OrderDetailDTO$OrchidSales(
+            d.orchidId.id, SUM(COALESCE(d.quantity, 0)))
+        FROM order_details d
+        JOIN d.order o
+        WHERE d.orchidId IS NOT NULL AND o.orderStatus = :status
+        GROUP BY d.orchidId.id""")
+    List<OrchidSales> findUnitsSoldPerOrchid(@Param("status") OrderStatus status);
+
 }
@@ -1,16 +1,72 @@
 package com.orchid.orchidbe.repositories;
 
 import com.orchid.orchidbe.domain.token.Token;
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
 
-    List<Token> findByAccountId(Long accountId);
+    long countByAccountId(Long accountId);
 
-    Optional<Token> findByToken(String token);
+    // Oldest non-mobile session first, then the oldest mobile one
+    Optional<Token> findFirstByAccountIdOrderByIsMobileAscIdAsc(Long accountId);
 
-    Optional<Token> findByRefreshToken(String token);
+    Optional<Token> findByTokenHash(String tokenHash);
+
+    Optional<Token> findByRefreshTokenHash(String refreshTokenHash);
+
+    /**
+     * Swaps in a new access/refresh token pair only if the row still holds
+     * {@code currentRefreshTokenHash} and is not revoked, so two refreshes racing on the same
+     * token cannot both succeed.
+     *
+     * @return 1 when rotated, 0 when the refresh token was already used or revoked
+     */
+    @Modifying
+    @Query("""
+        UPDATE tokens t
+        SET t.token = :token,
+            t.tokenHash = :tokenHash,
+            t.refreshToken = :refreshToken,
+            t.refreshTokenHash = :refreshTokenHash,
+            t.expirationDate = :expirationDate,
+            t.refreshExpirationDate = :refreshExpirationDate
+        WHERE t.id = :id
+          AND t.refreshTokenHash = :currentRefreshTokenHash
+          AND t.revoked = false
+        """)
+    int rotate(
+        @Param("id") Long id,
+        @Param("currentRefreshTokenHash") String currentRefreshTokenHash,
+        @Param("token") String token,
+        @Param("tokenHash") String tokenHash,
+        @Param("refreshToken") String refreshToken,
+        @Param("refreshTokenHash") String refreshTokenHash,
+        @Param("expirationDate") LocalDateTime expirationDate,
+        @Param("refreshExpirationDate") LocalDateTime refreshExpirationDate);
+
+    @Modifying
+    @Query("UPDATE tokens t SET t.revoked = true WHERE t.id = :id")
+    int revokeById(@Param("id") Long id);
+
+    /**
+     * Deletes at most {@code limit} revoked sessions or sessions whose refresh token has expired,
+     * each call in its own short transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM tokens WHERE id IN (
+            SELECT id FROM tokens
+            WHERE revoked = true OR refresh_expiration_date < :now
+            ORDER BY id
+            LIMIT :limit)
+        """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 
 }
@@ -0,0 +1,100 @@
+package com.orchid.orchidbe.security;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose cost is picked for the hardware it runs on.
+ * <p>
+ * {@link #upgradeEncoding(String)} only reports hashes below {@code minimumStrength}, a cost
+ * configured for the whole fleet, so logins gradually move old hashes up without a mass password
+ * reset. Nodes that calibrated to different costs never rehash each other's passwords, and a hash
+ * is never moved to a lower cost.
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 31;
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 3;
+
+    @Getter
+    private final int strength;
+
+    @Getter
+    private final int minimumStrength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        this(strength, strength);
+    }
+
+    public CalibratedBCryptPasswordEncoder(int strength, int minimumStrength) {
+        super(strength);
+        if (minimumStrength > strength) {
+            throw new IllegalArgumentException(
+                "Minimum cost " + minimumStrength + " is above the hashing cost " + strength);
+        }
+        this.strength = strength;
+        this.minimumStrength = minimumStrength;
+    }
+
+    /**
+     * Picks the highest cost in {@code [minStrength, maxStrength]} whose hash time stays within
+     * {@code targetLatency}. Each extra cost step doubles the work, so a single cheap probe is
+     * enough to extrapolate. Stored hashes are upgraded up to {@code minStrength}, the same on
+     * every node, whatever cost this node measured.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(
+        Duration targetLatency, int minStrength, int maxStrength
+    ) {
+        int min = Math.max(MIN_STRENGTH, minStrength);
+        int max = Math.min(MAX_STRENGTH, Math.max(min, maxStrength));
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("warm-up");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = min;
+        long target = targetLatency.toNanos();
+        while (strength < max && best * (1L << (strength + 1 - PROBE_STRENGTH)) <= target) {
+            strength++;
+        }
+        log.info("BCrypt calibrated to cost {} (~{} ms per hash, target {} ms)",
+                 strength,
+                 (best << Math.max(0, strength - PROBE_STRENGTH)) / 1_000_000,
+                 targetLatency.toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength, min);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        Integer cost = costOf(encodedPassword);
+        return cost != null && cost < minimumStrength;
+    }
+
+    // BCrypt hashes look like $2a$10$<salt+hash>
+    private static Integer costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+            || encodedPassword.charAt(0) != '$') {
+            return null;
+        }
+        int end = encodedPassword.indexOf('$', 1);
+        if (end < 0 || encodedPassword.length() < end + 3) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(end + 1, end + 3));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
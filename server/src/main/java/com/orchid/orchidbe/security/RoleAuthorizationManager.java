@@ -0,0 +1,155 @@
+package com.orchid.orchidbe.security;
+
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Authorizes {@link RequireRoles} methods. Once every singleton is created, each annotated method
+ * of every bean is folded into a bitmask of {@link RoleName#mask()}, so a check is one map lookup
+ * and one {@code &}, and an annotation without roles fails startup. A method first seen at call
+ * time, such as an interface method behind a JDK proxy, is compiled then and cached.
+ */
+public class RoleAuthorizationManager
+    implements AuthorizationManager<MethodInvocation>, SmartInitializingSingleton,
+    BeanFactoryAware {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Map<Method, Integer> requiredMasks = new ConcurrentHashMap<>();
+
+    private ListableBeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        if (beanFactory instanceof ListableBeanFactory listable) {
+            this.beanFactory = listable;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (beanFactory == null) {
+            return;
+        }
+        for (String name : beanFactory.getBeanNamesForType(Object.class, true, false)) {
+            Class<?> type = beanFactory.getType(name, false);
+            if (type != null) {
+                register(ClassUtils.getUserClass(type));
+            }
+        }
+    }
+
+    void register(Class<?> targetClass) {
+        if (!AnnotationUtils.isCandidateClass(targetClass, RequireRoles.class)) {
+            return;
+        }
+        boolean annotatedClass =
+            AnnotatedElementUtils.hasAnnotation(targetClass, RequireRoles.class);
+        Method[] methods;
+        try {
+            methods = ReflectionUtils.getUniqueDeclaredMethods(
+                targetClass, ReflectionUtils.USER_DECLARED_METHODS);
+        } catch (Throwable e) {
+            // A signature naming a class missing from the classpath, not one of our endpoints
+            return;
+        }
+        for (Method method : methods) {
+            if (annotatedClass && Modifier.isPublic(method.getModifiers())
+                || AnnotatedElementUtils.hasAnnotation(method, RequireRoles.class)) {
+                requiredMasks.put(method, compile(method, targetClass));
+            }
+        }
+    }
+
+    @Override
+    public AuthorizationResult authorize(
+        Supplier<Authentication> authentication, MethodInvocation invocation
+    ) {
+        Integer required = requiredMasks.get(invocation.getMethod());
+        if (required == null) {
+            Object target = invocation.getThis();
+            Class<?> targetClass = target == null ? invocation.getMethod().getDeclaringClass()
+                : AopUtils.getTargetClass(target);
+            required = requiredMasks.computeIfAbsent(
+                invocation.getMethod(), method -> compile(method, targetClass));
+        }
+        return new AuthorizationDecision((roleMask(authentication.get()) & required) != 0);
+    }
+
+    // Still abstract in Spring Security 6, only here for callers that have not moved to authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(
+        Supplier<Authentication> authentication, MethodInvocation invocation
+    ) {
+        return (AuthorizationDecision) authorize(authentication, invocation);
+    }
+
+    private static int compile(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+
+        RequireRoles requireRoles =
+            AnnotatedElementUtils.findMergedAnnotation(specificMethod, RequireRoles.class);
+        if (requireRoles == null) {
+            requireRoles = AnnotatedElementUtils.findMergedAnnotation(targetClass,
+                                                                      RequireRoles.class);
+        }
+        if (requireRoles == null) {
+            throw new IllegalStateException("No @RequireRoles found on " + specificMethod);
+        }
+
+        int mask = 0;
+        for (RoleName role : requireRoles.value()) {
+            mask |= role.mask();
+        }
+        if (mask == 0) {
+            throw new IllegalStateException("@RequireRoles without roles on " + specificMethod);
+        }
+        return mask;
+    }
+
+    private static int roleMask(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return 0;
+        }
+        // Our own principal carries the role directly, no need to parse authority strings
+        if (authentication.getPrincipal() instanceof Account account
+            && account.getRole() != null && account.getRole().getName() != null) {
+            return account.getRole().getName().mask();
+        }
+        int mask = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                try {
+                    mask |= RoleName.valueOf(name.substring(ROLE_PREFIX.length())).mask();
+                } catch (IllegalArgumentException ignored) {
+                    // e.g. ROLE_ANONYMOUS
+                }
+            }
+        }
+        return mask;
+    }
+
+}
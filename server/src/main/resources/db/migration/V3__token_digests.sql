@@ -0,0 +1,37 @@
+--
+-- Fixed-width SHA-256 digests of the access and refresh tokens so lookups hit an index
+-- instead of scanning the raw 255-char token columns.
+--
+
+ALTER TABLE public.tokens
+    ADD COLUMN token_hash character varying(64),
+    ADD COLUMN refresh_token_hash character varying(64);
+
+UPDATE public.tokens
+SET token_hash         = encode(sha256(convert_to(token, 'UTF8')), 'hex'),
+    refresh_token_hash = encode(sha256(convert_to(refresh_token, 'UTF8')), 'hex');
+
+--
+-- Tokens issued before they carried a jti were identical for two logins of the same user within
+-- one second. Such rows cannot be told apart, keep the newest of each so the digests are unique.
+--
+
+DELETE FROM public.tokens older
+USING public.tokens newer
+WHERE newer.token_hash = older.token_hash
+  AND newer.id > older.id;
+
+DELETE FROM public.tokens older
+USING public.tokens newer
+WHERE newer.refresh_token_hash = older.refresh_token_hash
+  AND newer.id > older.id;
+
+CREATE UNIQUE INDEX tokens_token_hash_key ON public.tokens USING btree (token_hash);
+
+CREATE UNIQUE INDEX tokens_refresh_token_hash_key ON public.tokens USING btree (refresh_token_hash);
+
+--
+-- Used by TokenRepository.findByAccountId when enforcing the per-user session cap
+--
+
+CREATE INDEX tokens_account_id_idx ON public.tokens USING btree (account_id);
@@ -0,0 +1,6 @@
+--
+-- Access tokens outgrew 255 chars once they carry a kid header, a jti and the role claim.
+-- Lookups go through token_hash, so the raw column only needs to be wide enough.
+--
+
+ALTER TABLE public.tokens ALTER COLUMN token TYPE character varying(2048);
@@ -0,0 +1,17 @@
+--
+-- Keyset pagination of the public catalog (OrchidServiceImpl.getPage) seeks on (sort key, id).
+-- The default btree order puts NULL prices and names last, which is also how the listing ranks
+-- them, so each index serves both ascending and descending pages.
+--
+
+CREATE INDEX orchids_price_id_idx ON public.orchids USING btree (price, id);
+
+CREATE INDEX orchids_name_id_idx ON public.orchids USING btree (name, id);
+
+--
+-- Category filter, on its own or combined with the price ordering / price range
+--
+
+CREATE INDEX orchids_category_id_id_idx ON public.orchids USING btree (category_id, id);
+
+CREATE INDEX orchids_category_id_price_id_idx ON public.orchids USING btree (category_id, price, id);
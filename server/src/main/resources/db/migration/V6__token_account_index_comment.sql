@@ -0,0 +1,8 @@
+--
+-- The per-user session cap counts a user's sessions and evicts the oldest non-mobile one first
+-- (TokenRepository.countByAccountId and findFirstByAccountIdOrderByIsMobileAscIdAsc), both
+-- through this index. V3 still names the lookup that was removed.
+--
+
+COMMENT ON INDEX public.tokens_account_id_idx IS
+    'Per-user session cap: TokenRepository.countByAccountId and findFirstByAccountIdOrderByIsMobileAscIdAsc';
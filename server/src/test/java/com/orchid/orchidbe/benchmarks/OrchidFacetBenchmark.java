@@ -0,0 +1,128 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetPage;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetQuery;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidFacetIndex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * A storefront page with its sidebar counts from {@link OrchidFacetIndex}, against
+ * {@code listScan}, which filters and counts the whole loaded catalog the way a page built on
+ * {@code findAll()} has to. The size of the bitmaps is printed once per catalog size.
+ * <p>
+ * Not part of the test suite, run it like {@link JwtSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OrchidFacetBenchmark {
+
+    private static final double[] PRICE_BOUNDS = {10, 25, 50, 100, 250, 500};
+    private static final OrchidFacetQuery UNFILTERED = new OrchidFacetQuery(Set.of(), null, null);
+    private static final OrchidFacetQuery FILTERED =
+        new OrchidFacetQuery(Set.of(3L, 7L), true, Set.of(2, 3));
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private OrchidFacetIndex index;
+    private List<OrchidRes> orchids;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        orchids = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            // A few large categories and a long tail of small ones
+            long category = 1 + (long) (40 * Math.pow(random.nextDouble(), 3));
+            double price = Math.round(Math.exp(random.nextDouble() * Math.log(1000)));
+            orchids.add(new OrchidRes(id, random.nextBoolean(), "", "Orchid " + id, "", price,
+                                      category));
+        }
+        index = new OrchidFacetIndex(PRICE_BOUNDS);
+        index.rebuild(() -> orchids);
+        System.out.printf("%n%d orchids, facet bitmaps ~%d KiB%n",
+                          size, index.memoryBytes() / 1024);
+    }
+
+    @Benchmark
+    public OrchidFacetPage unfiltered() {
+        return index.query(UNFILTERED, 0, 20);
+    }
+
+    @Benchmark
+    public OrchidFacetPage filtered() {
+        return index.query(FILTERED, 0, 20);
+    }
+
+    @Benchmark
+    public OrchidFacetPage deepPage() {
+        return index.query(FILTERED, size / 20, 20);
+    }
+
+    @Benchmark
+    public Object listScan() {
+        List<OrchidRes> items = new ArrayList<>(20);
+        int total = 0;
+        Map<Long, Integer> categories = new HashMap<>();
+        int[] natural = new int[2];
+        int[] prices = new int[PRICE_BOUNDS.length + 1];
+        for (OrchidRes orchid : orchids) {
+            boolean category = FILTERED.categoryIds().contains(orchid.categoryId());
+            boolean nature = orchid.isNatural() == FILTERED.isNatural();
+            boolean price = FILTERED.priceBuckets().contains(bucketOf(orchid.price()));
+            if (nature && price) {
+                categories.merge(orchid.categoryId(), 1, Integer::sum);
+            }
+            if (category && price) {
+                natural[orchid.isNatural() ? 1 : 0]++;
+            }
+            if (category && nature) {
+                prices[bucketOf(orchid.price())]++;
+            }
+            if (category && nature && price && total++ < 20) {
+                items.add(orchid);
+            }
+        }
+        return List.of(items, total, categories, natural, prices);
+    }
+
+    private static int bucketOf(double price) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(OrchidFacetBenchmark.class.getSimpleName())
+                       .build()).run();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidHit;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidSearchIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Query latency of {@link OrchidSearchIndex} over a synthetic Vietnamese catalog.
+ * <p>
+ * {@code rareTerm} matches a single orchid, {@code commonTerm} most of them and
+ * {@code accentedPhrase} is a typical multi-word query typed with diacritics. Each query returns
+ * the top 20 hits.
+ * <p>
+ * Not part of the test suite, run it like {@link JwtSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OrchidSearchBenchmark {
+
+    private static final String[] GENERA = {
+        "Hồ Điệp", "Vanda", "Cattleya", "Dendrobium", "Hoàng Thảo", "Kiều", "Lan Rừng",
+        "Phi Điệp", "Đai Châu", "Mokara", "Oncidium", "Cymbidium", "Ngọc Điểm", "Thủy Tiên"
+    };
+    private static final String[] WORDS = {
+        "hoa", "lan", "trắng", "tím", "vàng", "đỏ", "hồng", "xanh", "thơm", "rừng", "núi", "lai",
+        "tự", "nhiên", "cánh", "to", "nhỏ", "chậu", "treo", "giò", "cây", "lá", "dày", "mỏng",
+        "nở", "lâu", "tàn", "mùa", "xuân", "hạ", "thu", "đông", "bền", "đẹp", "quý", "hiếm",
+        "đà", "lạt", "sapa", "tây", "nguyên", "miền", "bắc", "nam", "trung", "ưa", "bóng", "nắng",
+        "ẩm", "khô", "đất", "vỏ", "thông", "dớn", "rễ", "khí", "sinh", "cao", "thấp", "chùm"
+    };
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private OrchidSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<OrchidRes> orchids = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            String genus = GENERA[random.nextInt(GENERA.length)];
+            String name = genus + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            StringBuilder description = new StringBuilder("Lan ").append(genus);
+            int words = 8 + random.nextInt(12);
+            for (int i = 0; i < words; i++) {
+                // Skewed towards the start of WORDS, like real text
+                int word = (int) (WORDS.length * Math.pow(random.nextDouble(), 2));
+                description.append(' ').append(WORDS[word]);
+            }
+            orchids.add(new OrchidRes(id, random.nextBoolean(), description.toString(), name,
+                                      "https://example.com/" + id, random.nextInt(1000) + 0.5,
+                                      1L + random.nextInt(10)));
+        }
+        index = new OrchidSearchIndex();
+        index.rebuild(() -> orchids);
+    }
+
+    @Benchmark
+    public List<OrchidHit> rareTerm() {
+        // Every name ends with the orchid id
+        return index.search("4242", 20);
+    }
+
+    @Benchmark
+    public List<OrchidHit> commonTerm() {
+        return index.search("hoa", 20);
+    }
+
+    @Benchmark
+    public List<OrchidHit> accentedPhrase() {
+        return index.search("lan hồ điệp trắng thơm", 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(OrchidSearchBenchmark.class.getSimpleName())
+                       .build()).run();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidSuggestion;
+import com.orchid.orchidbe.domain.orchid.OrchidSuggestIndex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lookup latency of {@link OrchidSuggestIndex} and the cost of a catalog write, which rebuilds the
+ * overlay tree. The time of a full rebuild and the approximate footprint of the base tree are
+ * printed once per catalog size.
+ * <p>
+ * Not part of the test suite, run it like {@link JwtSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OrchidSuggestBenchmark {
+
+    private static final String[] GENERA = {
+        "Hồ Điệp", "Vanda", "Cattleya", "Dendrobium", "Hoàng Thảo", "Kiều", "Lan Rừng",
+        "Phi Điệp", "Đai Châu", "Mokara", "Oncidium", "Cymbidium", "Ngọc Điểm", "Thủy Tiên"
+    };
+    private static final String[] COLORS = {
+        "Trắng", "Tím", "Vàng", "Đỏ", "Hồng", "Xanh", "Cam", "Đốm", "Sọc", "Ruby"
+    };
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private OrchidSuggestIndex index;
+    private OrchidRes updated;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<OrchidRes> orchids = new ArrayList<>(size);
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (long id = 1; id <= size; id++) {
+            String name = GENERA[random.nextInt(GENERA.length)] + " "
+                + COLORS[random.nextInt(COLORS.length)] + " " + Long.toString(id, 36);
+            orchids.add(new OrchidRes(id, true, "", name, "", 1.0, 1L));
+            unitsSold.put(id, (long) random.nextInt(1000));
+        }
+        index = new OrchidSuggestIndex();
+        long start = System.nanoTime();
+        index.rebuild(() -> orchids, unitsSold);
+        System.out.printf("%n%d orchids, rebuilt in %d ms, ~%d MiB%n", size,
+                          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                          index.memoryBytes() / (1024 * 1024));
+        updated = orchids.get(size / 2);
+    }
+
+    @Benchmark
+    public List<OrchidSuggestion> oneLetter() {
+        return index.suggest("h", 10);
+    }
+
+    @Benchmark
+    public List<OrchidSuggestion> accentedWords() {
+        return index.suggest("hồ điệp tr", 10);
+    }
+
+    @Benchmark
+    public List<OrchidSuggestion> missing() {
+        return index.suggest("xyz", 10);
+    }
+
+    @Benchmark
+    public void write() {
+        index.put(updated);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(OrchidSuggestBenchmark.class.getSimpleName())
+                       .build()).run();
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.orchid.orchidbe.benchmarks;
+
+import com.orchid.orchidbe.App;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+
+/**
+ * Throughput of the security filters alone for an anonymous cross-origin catalog read.
+ * <p>
+ * The same {@code /public/orchids} request runs through each {@code publicChain} setting:
+ * {@code true} is the dedicated chain, {@code false} the main chain it used to go through. The
+ * application boots once per setting against in-memory H2.
+ * <p>
+ * Not part of the test suite, run it like {@link JwtSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicFilterChainBenchmark {
+
+    private static final String CATALOG_PATH = "/api/public/orchids";
+    private static final String ORIGIN = "http://localhost:5173";
+    private static final FilterChain NO_OP = (request, response) -> {
+    };
+
+    @Param({"true", "false"})
+    public boolean publicChain;
+
+    private ConfigurableApplicationContext context;
+    private FilterChainProxy filterChainProxy;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(App.class)
+            .run("--spring.profiles.active=h2",
+                 "--server.port=0",
+                 "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                 "--security.public-chain.enabled=" + publicChain,
+                 "--logging.level.root=WARN");
+        filterChainProxy = context.getBean(FilterChainProxy.class);
+        // Both settings must let the request through, or the comparison means nothing
+        if (catalogRead().getStatus() != 200) {
+            throw new IllegalStateException("Catalog read was not permitted");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse catalogRead() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", CATALOG_PATH);
+        // As the container sets it for the dispatcher servlet mapped at "/"
+        request.setServletPath(CATALOG_PATH);
+        request.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChainProxy.doFilter(request, response, NO_OP);
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(PublicFilterChainBenchmark.class.getSimpleName())
+                       .build()).run();
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.orchid.orchidbe.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CatalogCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = cache(Duration.ofMinutes(10), 100);
+    }
+
+    private CatalogCache cache(Duration ttl, int maxEntries) {
+        meterRegistry = new SimpleMeterRegistry();
+        var cache = new CatalogCache(meterRegistry, new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttl", ttl);
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        cache.init();
+        return cache;
+    }
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        var loads = new AtomicInteger();
+
+        assertThat(cache.get("orchids", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get("orchids", loads::incrementAndGet)).isEqualTo(1);
+
+        cache.invalidate("orchids");
+        assertThat(cache.get("orchids", loads::incrementAndGet)).isEqualTo(2);
+        assertThat(meterRegistry.get("catalog.cache.requests").tag("result", "hit").counter()
+                       .count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotStoreALoadThatRacedWithAWrite() throws Exception {
+        var loading = new CountDownLatch(1);
+        var written = new CountDownLatch(1);
+
+        // The reader fetched the old row, then the write commits before it reaches the cache
+        var slowRead = CompletableFuture.supplyAsync(() -> cache.get("orchids", () -> {
+            loading.countDown();
+            await(written);
+            return "before write";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.invalidate("orchids");
+        written.countDown();
+
+        assertThat(slowRead.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+        assertThat(cache.get("orchids", () -> "after write")).isEqualTo("after write");
+    }
+
+    @Test
+    void aWriteToAnotherKeyAlsoDiscardsTheRacingLoad() {
+        // Versions are catalog wide, a category write can change what an orchid renders as
+        String value = cache.get("orchids", () -> {
+            cache.invalidate("categories");
+            return "racing";
+        });
+
+        assertThat(value).isEqualTo("racing");
+        assertThat(cache.get("orchids", () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void bumpsTheVersionOnEveryWrite() {
+        long before = cache.version();
+
+        cache.invalidate();
+        cache.invalidate("orchids", "orchids:1");
+
+        assertThat(cache.version()).isEqualTo(before + 2);
+    }
+
+    @Test
+    void doesNotCacheMissingValues() {
+        var loads = new AtomicInteger();
+
+        cache.get("orchids:404", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        cache.get("orchids:404", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void reloadsExpiredEntries() throws Exception {
+        cache = cache(Duration.ofMillis(1), 100);
+        var loads = new AtomicInteger();
+
+        cache.get("orchids", loads::incrementAndGet);
+        Thread.sleep(5);
+
+        assertThat(cache.get("orchids", loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void derivesTheEtagFromTheContent() {
+        var other = cache(Duration.ofMinutes(10), 100);
+
+        var versioned = cache.getVersioned("orchids", () -> List.of("Hồ Điệp", "Vanda"));
+        // Another node loading the same rows
+        var elsewhere = other.getVersioned("orchids", () -> List.of("Hồ Điệp", "Vanda"));
+        var changed = cache.getVersioned("orchids:1", () -> List.of("Hồ Điệp"));
+
+        assertThat(versioned.etag()).hasSize(32).isEqualTo(elsewhere.etag());
+        assertThat(changed.etag()).isNotEqualTo(versioned.etag());
+    }
+
+    @Test
+    void keepsValidatorsWhenAReloadFindsNothingChanged() throws Exception {
+        cache = cache(Duration.ofMillis(1), 100);
+
+        var first = cache.getVersioned("orchids", () -> List.of("Vanda"));
+        Thread.sleep(5);
+        var expired = cache.getVersioned("orchids", () -> List.of("Vanda"));
+        cache.invalidate("orchids");
+        var invalidated = cache.getVersioned("orchids", () -> List.of("Vanda"));
+
+        assertThat(expired.etag()).isEqualTo(first.etag());
+        assertThat(expired.lastModified()).isEqualTo(first.lastModified());
+        assertThat(invalidated.etag()).isEqualTo(first.etag());
+        assertThat(invalidated.lastModified()).isEqualTo(first.lastModified());
+    }
+
+    @Test
+    void movesLastModifiedWhenTheDataChanges() throws Exception {
+        var first = cache.getVersioned("orchids", () -> List.of("Vanda"));
+        Thread.sleep(5);
+        cache.invalidate("orchids");
+
+        var changed = cache.getVersioned("orchids", () -> List.of("Vanda", "Dendrobium"));
+
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+        assertThat(changed.lastModified()).isGreaterThan(first.lastModified());
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        cache = cache(Duration.ZERO, 3);
+
+        for (int i = 0; i < 10; i++) {
+            int id = i;
+            cache.get("orchids:" + id, () -> id);
+        }
+
+        assertThat(meterRegistry.get("catalog.cache.size").gauge().value()).isLessThanOrEqualTo(3);
+        assertThat(meterRegistry.get("catalog.cache.evictions").counter().count()).isPositive();
+    }
+
+    @Test
+    void passesThroughWhenDisabled() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        var loads = new AtomicInteger();
+
+        cache.get("orchids", loads::incrementAndGet);
+        cache.get("orchids", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
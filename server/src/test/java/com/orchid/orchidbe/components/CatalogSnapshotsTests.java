@@ -0,0 +1,90 @@
+package com.orchid.orchidbe.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.components.CatalogCache.Versioned;
+import com.orchid.orchidbe.components.CatalogSnapshots.Encoding;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+
+class CatalogSnapshotsTests {
+
+    private final CatalogSnapshots snapshots = new CatalogSnapshots(new ObjectMapper());
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "NULL", value = {
+        "NULL                  | IDENTITY",
+        "''                    | IDENTITY",
+        "gzip                  | GZIP",
+        "GZIP                  | GZIP",
+        "deflate, gzip;q=0.5   | GZIP",
+        "br, deflate           | IDENTITY",
+        "*                     | GZIP",
+        "gzip;q=0              | IDENTITY",
+        "gzip;q=0.0, *         | IDENTITY",
+        "*, gzip;q=0           | IDENTITY",
+        "gzip;q=0, *;q=1       | IDENTITY",
+        "*;q=0                 | IDENTITY",
+        "*;q=0, gzip           | GZIP",
+        "gzip;q=abc            | IDENTITY",
+        "gzip ; q=0.001        | GZIP",
+    })
+    void negotiatesGzipOnlyWhenAccepted(String acceptEncoding, Encoding expected) {
+        assertThat(Encoding.negotiate(acceptEncoding)).isEqualTo(expected);
+    }
+
+    @Test
+    void givesEachEncodingItsOwnEtag() {
+        var versioned = new Versioned<>(List.of(), "abc", 0);
+
+        assertThat(Encoding.IDENTITY.etag(versioned)).isEqualTo("abc");
+        assertThat(Encoding.GZIP.etag(versioned)).isEqualTo("abc-gzip");
+    }
+
+    @Test
+    void servesTheSameJsonInBothEncodings() throws Exception {
+        var snapshot = snapshots.get("orchids", new Versioned<>(List.of("Hồ Điệp"), "abc", 0),
+                                     Function.identity());
+
+        var identity = snapshot.toResponse(Encoding.IDENTITY);
+        var gzip = snapshot.toResponse(Encoding.GZIP);
+
+        assertThat(identity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getContentLength()).isEqualTo(gzip.getBody().length);
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(identity.getBody());
+        }
+        List<String> names = new ObjectMapper().readValue(identity.getBody(),
+                                                          new TypeReference<>() {
+                                                          });
+        assertThat(names).containsExactly("Hồ Điệp");
+    }
+
+    @Test
+    void rendersOncePerEtag() {
+        var renders = new AtomicInteger();
+        Function<List<String>, Object> body = value -> {
+            renders.incrementAndGet();
+            return value;
+        };
+
+        var first = snapshots.get("orchids", new Versioned<>(List.of("Vanda"), "v1", 0), body);
+        var same = snapshots.get("orchids", new Versioned<>(List.of("Vanda"), "v1", 0), body);
+        var changed = snapshots.get("orchids", new Versioned<>(List.of("Aerides"), "v2", 0), body);
+
+        assertThat(same).isSameAs(first);
+        assertThat(changed).isNotSameAs(first);
+        assertThat(renders).hasValue(2);
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.orchid.orchidbe.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtKeyRingTests {
+
+    private static final String DEFAULT_SECRET = secret('d');
+    private static final String OLD_SECRET = secret('o');
+    private static final String NEW_SECRET = secret('n');
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static JwtKeyRing ring(Map<String, Object> settings) {
+        var ring = new JwtKeyRing();
+        ReflectionTestUtils.setField(ring, "secretKey", DEFAULT_SECRET);
+        ReflectionTestUtils.setField(ring, "keys", "");
+        ReflectionTestUtils.setField(ring, "configuredActiveKid", "");
+        ReflectionTestUtils.setField(ring, "algorithm", SignatureAlgorithm.HS256);
+        ReflectionTestUtils.setField(ring, "ecKid", "ec-1");
+        ReflectionTestUtils.setField(ring, "ecPrivateKey", "");
+        ReflectionTestUtils.setField(ring, "ecPublicKey", "");
+        ReflectionTestUtils.setField(ring, "ecPreviousPublicKeys", "");
+        settings.forEach((field, value) -> ReflectionTestUtils.setField(ring, field, value));
+        ring.init();
+        return ring;
+    }
+
+    private static String sign(JwtKeyRing ring, String subject) {
+        return Jwts.builder()
+            .setHeaderParam("kid", ring.getActiveKid())
+            .setSubject(subject)
+            .signWith(ring.signingKey(), ring.getSignatureAlgorithm())
+            .compact();
+    }
+
+    private static String subject(JwtKeyRing ring, String token) {
+        return ring.getParser().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Test
+    void legacySecretIsTheDefaultKey() {
+        var ring = ring(Map.of());
+
+        assertThat(ring.getActiveKid()).isEqualTo(JwtKeyRing.DEFAULT_KID);
+        assertThat(subject(ring, sign(ring, "a@x.com"))).isEqualTo("a@x.com");
+        assertThat(ring.getJwks()).isEqualTo(Map.of("keys", List.of()));
+    }
+
+    @Test
+    void tokensWithoutKidUseTheDefaultKey() {
+        var ring = ring(Map.of());
+        String token = Jwts.builder()
+            .setSubject("a@x.com")
+            .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(DEFAULT_SECRET)),
+                      SignatureAlgorithm.HS256)
+            .compact();
+
+        assertThat(subject(ring, token)).isEqualTo("a@x.com");
+    }
+
+    @Test
+    void rotationKeepsOldTokensValidUntilTheKeyIsDropped() {
+        var before = ring(Map.of("keys", "old:" + OLD_SECRET, "configuredActiveKid", "old"));
+        String oldToken = sign(before, "a@x.com");
+
+        var during = ring(Map.of("keys", "old:" + OLD_SECRET + ",new:" + NEW_SECRET,
+                                 "configuredActiveKid", "new"));
+        String newToken = sign(during, "b@x.com");
+        assertThat(subject(during, oldToken)).isEqualTo("a@x.com");
+        assertThat(subject(during, newToken)).isEqualTo("b@x.com");
+
+        var after = ring(Map.of("keys", "new:" + NEW_SECRET, "configuredActiveKid", "new"));
+        assertThat(subject(after, newToken)).isEqualTo("b@x.com");
+        assertThatThrownBy(() -> subject(after, oldToken))
+            .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void kidMustMatchTheKey() {
+        var ring = ring(Map.of("keys", "old:" + OLD_SECRET + ",new:" + NEW_SECRET,
+                               "configuredActiveKid", "new"));
+        String forged = Jwts.builder()
+            .setHeaderParam("kid", "new")
+            .setSubject("a@x.com")
+            .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(OLD_SECRET)),
+                      SignatureAlgorithm.HS256)
+            .compact();
+
+        assertThatThrownBy(() -> subject(ring, forged)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsUnknownActiveKid() {
+        assertThatThrownBy(() -> ring(Map.of("configuredActiveKid", "missing")))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ring(Map.of("keys", "broken")))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void es256SignsWithTheConfiguredPairAndPublishesIt() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        var ring = ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                               "ecPrivateKey", base64(pair.getPrivate().getEncoded()),
+                               "ecPublicKey", base64(pair.getPublic().getEncoded())));
+        String token = sign(ring, "a@x.com");
+
+        assertThat(ring.getActiveKid()).isEqualTo("ec-1");
+        assertThat(subject(ring, token)).isEqualTo("a@x.com");
+        // Anyone holding the published key can verify
+        assertThat(Jwts.parserBuilder().setSigningKey(pair.getPublic()).build()
+                       .parseClaimsJws(token).getBody().getSubject()).isEqualTo("a@x.com");
+
+        @SuppressWarnings("unchecked")
+        var keys = (List<Map<String, Object>>) ring.getJwks().get("keys");
+        assertThat(keys).singleElement().satisfies(jwk -> {
+            assertThat(jwk).containsEntry("kid", "ec-1").containsEntry("kty", "EC")
+                .containsEntry("crv", "P-256").containsEntry("alg", "ES256");
+            var point = ((ECPublicKey) pair.getPublic()).getW();
+            assertThat(coordinate(jwk.get("x"))).isEqualTo(point.getAffineX());
+            assertThat(coordinate(jwk.get("y"))).isEqualTo(point.getAffineY());
+        });
+    }
+
+    private static BigInteger coordinate(Object base64Url) {
+        byte[] bytes = Base64.getUrlDecoder().decode((String) base64Url);
+        assertThat(bytes).hasSize(32);
+        return new BigInteger(1, bytes);
+    }
+
+    @Test
+    void es256StillAcceptsHmacAndRetiredEcTokens() {
+        var hmac = ring(Map.of());
+        String hmacToken = sign(hmac, "a@x.com");
+        KeyPair retired = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String retiredToken = Jwts.builder()
+            .setHeaderParam("kid", "ec-0")
+            .setSubject("b@x.com")
+            .signWith(retired.getPrivate(), SignatureAlgorithm.ES256)
+            .compact();
+
+        var ring = ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                               "ecPreviousPublicKeys",
+                               "ec-0:" + base64(retired.getPublic().getEncoded())));
+
+        assertThat(subject(ring, hmacToken)).isEqualTo("a@x.com");
+        assertThat(subject(ring, retiredToken)).isEqualTo("b@x.com");
+        assertThat((List<?>) ring.getJwks().get("keys")).hasSize(2);
+    }
+
+    @Test
+    void rejectsEmptyRetiredEcEntries() {
+        String publicKey = base64(Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic()
+                                      .getEncoded());
+
+        for (String entry : List.of(":" + publicKey, "ec-0:", "ec-0", " : ")) {
+            assertThatThrownBy(() -> ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                                                 "ecPreviousPublicKeys", entry)))
+                .as(entry)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.ec.previous-public-keys");
+        }
+        assertThatThrownBy(() -> ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                                             "ecKid", " ")))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsDuplicateKidsAcrossKeyFamilies() {
+        String publicKey = base64(Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic()
+                                      .getEncoded());
+
+        // An HMAC kid reused for an EC key would change the algorithm that verifies it
+        assertThatThrownBy(() -> ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                                             "keys", "old:" + OLD_SECRET,
+                                             "ecPreviousPublicKeys", "old:" + publicKey)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Duplicate JWT key id old");
+        assertThatThrownBy(() -> ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                                             "keys", "ec-1:" + OLD_SECRET)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Duplicate JWT key id ec-1");
+        assertThatThrownBy(() -> ring(Map.of("algorithm", SignatureAlgorithm.ES256,
+                                             "ecPreviousPublicKeys",
+                                             "ec-0:" + publicKey + ",ec-0:" + publicKey)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ring(Map.of("keys", "a:" + OLD_SECRET + ",a:" + NEW_SECRET)))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ring(Map.of("keys", JwtKeyRing.DEFAULT_KID + ":" + NEW_SECRET)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+}
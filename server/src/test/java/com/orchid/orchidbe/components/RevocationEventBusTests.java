@@ -0,0 +1,144 @@
+package com.orchid.orchidbe.components;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.orchid.orchidbe.components.RevocationEventBus.Listener;
+import com.orchid.orchidbe.components.RevocationEventBus.RevocationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RevocationEventBusTests {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Listener listener = mock(Listener.class);
+
+    private PostgresRevocationEventBus bus;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    private PostgresRevocationEventBus newBus(String channel) {
+        var created = new PostgresRevocationEventBus(dataSource, jdbcTemplate,
+                                                     new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(created, "channel", channel);
+        ReflectionTestUtils.setField(created, "pollTimeout", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(created, "reconnectDelay", Duration.ofMillis(10));
+        return created;
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+
+    // A pooled connection that delivers the given notifications once, then stays quiet
+    private static Connection connection(PGNotification... notifications) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        AtomicInteger polls = new AtomicInteger();
+        when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            if (polls.getAndIncrement() == 0) {
+                return notifications;
+            }
+            Thread.sleep(10);
+            return null;
+        });
+        return connection;
+    }
+
+    @Test
+    void inProcessBusDeliversToEverySubscriber() {
+        var inProcess = new InProcessRevocationEventBus();
+        Listener other = mock(Listener.class);
+        inProcess.subscribe(listener);
+        inProcess.subscribe(other);
+
+        inProcess.publish(new RevocationEvent("abc", 42));
+
+        verify(listener).onRevoked(new RevocationEvent("abc", 42));
+        verify(other).onRevoked(new RevocationEvent("abc", 42));
+    }
+
+    @Test
+    void publishesNodeDigestAndExpiry() throws Exception {
+        Connection connection = connection();
+        when(dataSource.getConnection()).thenReturn(connection);
+        bus = newBus("token_revocations");
+        bus.start();
+        String nodeId = (String) ReflectionTestUtils.getField(bus, "nodeId");
+
+        bus.publish(new RevocationEvent("abc", 42));
+
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"),
+                                   ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+                                   eq("token_revocations"), eq(nodeId + " abc 42"));
+    }
+
+    @Test
+    void deliversOtherNodesEventsOnly() throws Exception {
+        bus = newBus("token_revocations");
+        String nodeId = (String) ReflectionTestUtils.getField(bus, "nodeId");
+        Connection connection = connection(
+            notification(nodeId + " own 1"),
+            notification("garbage"),
+            notification("other-node theirs 2"));
+        when(dataSource.getConnection()).thenReturn(connection);
+        bus.subscribe(listener);
+
+        bus.start();
+
+        verify(listener, timeout(2000)).onGap();
+        verify(listener, timeout(2000)).onRevoked(new RevocationEvent("theirs", 2));
+        verify(listener, timeout(200).times(0)).onRevoked(new RevocationEvent("own", 1));
+    }
+
+    @Test
+    void reconnectsAfterPoolFailuresAndReportsTheGap() throws Exception {
+        bus = newBus("token_revocations");
+        Connection connection = connection(notification("other-node theirs 2"));
+        when(dataSource.getConnection())
+            .thenThrow(new IllegalStateException("pool exhausted"))
+            .thenThrow(new SQLException("connection refused"))
+            .thenReturn(connection);
+        bus.subscribe(listener);
+
+        bus.start();
+
+        verify(listener, timeout(2000)).onRevoked(new RevocationEvent("theirs", 2));
+        verify(listener).onGap();
+    }
+
+    @Test
+    void rejectsChannelsThatCannotBeListenedTo() {
+        assertThatThrownBy(() -> newBus("tokens; DROP TABLE tokens").start())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.orchid.orchidbe.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orchid.orchidbe.components.TokenRevocationIndex.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenRevocationIndexTests {
+
+    private final List<RevocationEventBus.Listener> listeners = new ArrayList<>();
+    private final RevocationEventBus bus = new RevocationEventBus() {
+        @Override
+        public void publish(RevocationEvent event) {
+            listeners.forEach(listener -> listener.onRevoked(event));
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+            listeners.add(listener);
+        }
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = newIndex(meterRegistry, 100);
+    }
+
+    private TokenRevocationIndex newIndex(SimpleMeterRegistry registry, int maxEntries) {
+        var created = new TokenRevocationIndex(registry, bus);
+        ReflectionTestUtils.setField(created, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(created, "activeTtlSeconds", 60L);
+        created.init();
+        return created;
+    }
+
+    @Test
+    void unknownUntilMarked() {
+        assertThat(index.lookup("a")).isEqualTo(State.UNKNOWN);
+
+        index.markActive("a", LocalDateTime.now().plusHours(1));
+        index.markRevoked("b", LocalDateTime.now().plusHours(1));
+
+        assertThat(index.lookup("a")).isEqualTo(State.ACTIVE);
+        assertThat(index.lookup("b")).isEqualTo(State.REVOKED);
+        assertThat(index.hitRatio()).isEqualTo(2 / 3.0);
+    }
+
+    @Test
+    void revokedReplacesActive() {
+        index.markActive("a", LocalDateTime.now().plusHours(1));
+        index.markRevoked("a", LocalDateTime.now().plusHours(1));
+
+        assertThat(index.lookup("a")).isEqualTo(State.REVOKED);
+    }
+
+    @Test
+    void expiredEntriesAreUnknown() {
+        index.markActive("a", LocalDateTime.now().minusSeconds(1));
+        index.markRevoked("b", LocalDateTime.now().minusSeconds(1));
+
+        assertThat(index.lookup("a")).isEqualTo(State.UNKNOWN);
+        assertThat(index.lookup("b")).isEqualTo(State.UNKNOWN);
+    }
+
+    @Test
+    void revokeReachesOtherNodes() {
+        var other = newIndex(new SimpleMeterRegistry(), 100);
+        other.markActive("a", LocalDateTime.now().plusHours(1));
+
+        index.revoke("a", LocalDateTime.now().plusHours(1));
+
+        assertThat(other.lookup("a")).isEqualTo(State.REVOKED);
+    }
+
+    @Test
+    void gapDropsActiveEntries() {
+        index.markActive("a", LocalDateTime.now().plusHours(1));
+        index.markRevoked("b", LocalDateTime.now().plusHours(1));
+
+        listeners.forEach(RevocationEventBus.Listener::onGap);
+
+        assertThat(index.lookup("a")).isEqualTo(State.UNKNOWN);
+        assertThat(index.lookup("b")).isEqualTo(State.REVOKED);
+    }
+
+    @Test
+    void staysWithinBound() {
+        index = newIndex(meterRegistry = new SimpleMeterRegistry(), 3);
+        for (int i = 0; i < 10; i++) {
+            index.markActive("t" + i, LocalDateTime.now().plusHours(1));
+        }
+
+        assertThat(meterRegistry.get("auth.token.index.size").tag("state", "active").gauge()
+                       .value()).isEqualTo(3);
+        assertThat(meterRegistry.get("auth.token.index.evictions").counter().count())
+            .isEqualTo(7);
+        assertThat(index.lookup("t9")).isEqualTo(State.ACTIVE);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.orchid.orchidbe.domain.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.orchid.orchidbe.domain.account.Account;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * A login reads the account once, by email, and reuses that entity for the password check, the
+ * token and the session. The only other statement on {@code accounts} is the row lock taken by
+ * the session cap, which reads no columns besides the id.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalog;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "catalog.cache.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class AuthLoginQueryTests {
+
+    private static final String ACCOUNT_LOCK = "SELECT a.id FROM accounts a WHERE a.id = :id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private long executions(String query) {
+        return statistics.getQueryStatistics(query).getExecutionCount();
+    }
+
+    @Test
+    void loginLooksTheAccountUpOnce() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                {"email": "manager@gmail.com", "password": "Iloveyou123^^"}"""))
+            .andExpect(status().isOk());
+
+        assertThat(statistics.getEntityStatistics(Account.class.getName()).getLoadCount())
+            .isEqualTo(1);
+        var accountReads = Arrays.stream(statistics.getQueries())
+            .filter(query -> query.contains("accounts") && !query.equals(ACCOUNT_LOCK)
+                && !query.contains("tokens"))
+            .toList();
+        assertThat(accountReads).singleElement()
+            .satisfies(query -> assertThat(query).contains("email"))
+            .satisfies(query -> assertThat(executions(query)).isEqualTo(1));
+        assertThat(executions(ACCOUNT_LOCK)).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CompressedBitmapTests {
+
+    private static final int CHUNK = 1 << 16;
+
+    private final Random random = new Random(2024);
+
+    private static BitSet toBitSet(CompressedBitmap bitmap) {
+        BitSet bits = new BitSet();
+        bitmap.forEach(0, Integer.MAX_VALUE, bits::set);
+        return bits;
+    }
+
+    private static String chunkType(CompressedBitmap bitmap) {
+        Object[] chunks = (Object[]) ReflectionTestUtils.getField(bitmap, "chunks");
+        return chunks[0].getClass().getSimpleName();
+    }
+
+    private static List<Integer> values(CompressedBitmap bitmap, int offset, int limit) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(offset, limit, values::add);
+        return values;
+    }
+
+    private static List<Integer> values(BitSet bits, int offset, int limit) {
+        return bits.stream().skip(offset).limit(limit).boxed().toList();
+    }
+
+    private record Pair(CompressedBitmap bitmap, BitSet bits) {
+
+    }
+
+    // Values spread over a few chunks, each chunk sparse, dense or close to the array limit
+    private Pair randomSet() {
+        var bitmap = new CompressedBitmap();
+        var bits = new BitSet();
+        for (int chunk = 0; chunk < 4; chunk++) {
+            if (random.nextInt(4) == 0) {
+                continue;
+            }
+            int count = switch (random.nextInt(4)) {
+                case 0 -> random.nextInt(50);
+                case 1 -> CompressedBitmap.ARRAY_MAX - 20 + random.nextInt(40);
+                case 2 -> 10_000 + random.nextInt(20_000);
+                default -> random.nextInt(2_000);
+            };
+            for (int i = 0; i < count; i++) {
+                int value = chunk * CHUNK + random.nextInt(CHUNK);
+                assertThat(bitmap.add(value)).isEqualTo(!bits.get(value));
+                bits.set(value);
+            }
+        }
+        return new Pair(bitmap, bits);
+    }
+
+    @Test
+    void matchesBitSetUnderRandomAddsAndRemoves() {
+        var bitmap = new CompressedBitmap();
+        var bits = new BitSet();
+        for (int step = 0; step < 200_000; step++) {
+            // Mostly within two chunks so they cross the array limit both ways
+            int value = random.nextInt(10) == 0
+                ? random.nextInt(8 * CHUNK)
+                : CHUNK - 6_000 + random.nextInt(12_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(bitmap.remove(value)).isEqualTo(bits.get(value));
+                bits.clear(value);
+            } else {
+                assertThat(bitmap.add(value)).isEqualTo(!bits.get(value));
+                bits.set(value);
+            }
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(bits.cardinality());
+        assertThat(toBitSet(bitmap)).isEqualTo(bits);
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(9 * CHUNK);
+            assertThat(bitmap.contains(value)).isEqualTo(bits.get(value));
+        }
+    }
+
+    @Test
+    void switchesRepresentationAtTheArrayLimit() {
+        var bitmap = new CompressedBitmap();
+        for (int value = 0; value < CompressedBitmap.ARRAY_MAX; value++) {
+            bitmap.add(value * 3);
+        }
+        assertThat(chunkType(bitmap)).isEqualTo("ArrayChunk");
+
+        bitmap.add(1);
+        assertThat(chunkType(bitmap)).isEqualTo("BitmapChunk");
+
+        bitmap.remove(1);
+        assertThat(chunkType(bitmap)).isEqualTo("ArrayChunk");
+        assertThat(bitmap.cardinality()).isEqualTo(CompressedBitmap.ARRAY_MAX);
+        assertThat(bitmap.contains(3 * (CompressedBitmap.ARRAY_MAX - 1))).isTrue();
+        assertThat(bitmap.contains(1)).isFalse();
+    }
+
+    @Test
+    void handlesChunkBoundaries() {
+        var bitmap = new CompressedBitmap();
+        int[] values = {0, CHUNK - 1, CHUNK, 2 * CHUNK - 1, 5 * CHUNK, Integer.MAX_VALUE};
+        for (int value : values) {
+            bitmap.add(value);
+        }
+
+        assertThat(values(bitmap, 0, 100)).containsExactly(
+            0, CHUNK - 1, CHUNK, 2 * CHUNK - 1, 5 * CHUNK, Integer.MAX_VALUE);
+        assertThat(bitmap.contains(CHUNK + 1)).isFalse();
+
+        bitmap.remove(CHUNK - 1);
+        bitmap.remove(CHUNK);
+        assertThat(values(bitmap, 0, 100))
+            .containsExactly(0, 2 * CHUNK - 1, 5 * CHUNK, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void setOperationsMatchBitSet() {
+        for (int round = 0; round < 60; round++) {
+            Pair a = randomSet();
+            Pair b = randomSet();
+
+            BitSet and = (BitSet) a.bits().clone();
+            and.and(b.bits());
+            BitSet or = (BitSet) a.bits().clone();
+            or.or(b.bits());
+
+            assertThat(toBitSet(CompressedBitmap.and(a.bitmap(), b.bitmap()))).isEqualTo(and);
+            assertThat(CompressedBitmap.andCardinality(a.bitmap(), b.bitmap()))
+                .isEqualTo(and.cardinality());
+            CompressedBitmap union = CompressedBitmap.or(a.bitmap(), b.bitmap());
+            assertThat(toBitSet(union)).isEqualTo(or);
+            assertThat(union.cardinality()).isEqualTo(or.cardinality());
+
+            // Expanded copies hold the same values and combine the same way
+            CompressedBitmap expanded = a.bitmap().expanded();
+            assertThat(toBitSet(expanded)).isEqualTo(a.bits());
+            assertThat(CompressedBitmap.andCardinality(expanded, b.bitmap()))
+                .isEqualTo(and.cardinality());
+
+            // Arguments are left untouched
+            assertThat(toBitSet(a.bitmap())).isEqualTo(a.bits());
+            assertThat(toBitSet(b.bitmap())).isEqualTo(b.bits());
+        }
+    }
+
+    @Test
+    void intersectsArraysOfVeryDifferentSizes() {
+        var small = new CompressedBitmap();
+        var large = new CompressedBitmap();
+        var expected = new BitSet();
+        for (int value = 0; value < 4000; value++) {
+            large.add(value * 16);
+        }
+        for (int value = 0; value < 100; value++) {
+            int picked = random.nextInt(64_000);
+            small.add(picked);
+            if (picked % 16 == 0) {
+                expected.set(picked);
+            }
+        }
+
+        assertThat(toBitSet(CompressedBitmap.and(small, large))).isEqualTo(expected);
+        assertThat(toBitSet(CompressedBitmap.and(large, small))).isEqualTo(expected);
+        assertThat(CompressedBitmap.andCardinality(large, small))
+            .isEqualTo(expected.cardinality());
+    }
+
+    @Test
+    void pagesLikeBitSet() {
+        Pair set = randomSet();
+        int cardinality = set.bits().cardinality();
+
+        for (int i = 0; i < 200; i++) {
+            int offset = random.nextInt(cardinality + 10);
+            int limit = random.nextInt(100);
+            assertThat(values(set.bitmap(), offset, limit))
+                .as("offset %d limit %d", offset, limit)
+                .isEqualTo(values(set.bits(), offset, limit));
+        }
+    }
+
+}
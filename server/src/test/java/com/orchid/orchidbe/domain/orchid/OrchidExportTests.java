@@ -0,0 +1,107 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.orchid.orchidbe.repositories.OrchidRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * The catalog export end to end with real tokens: the body is streamed on an async dispatch
+ * that the token filter does not see.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class OrchidExportTests {
+
+    private static final String EXPORT = "/api/orchids/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrchidRepository orchidRepository;
+
+    private String login(String email) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                                          .contentType(MediaType.APPLICATION_JSON)
+                                          .content("""
+                                              {"email": "%s", "password": "Iloveyou123^^"}"""
+                                                       .formatted(email)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return "Bearer " + JsonPath.read(body, "$.data.token.access_token");
+    }
+
+    @Test
+    void needsAuthentication() throws Exception {
+        mockMvc.perform(get(EXPORT)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void isForbiddenToUsers() throws Exception {
+        mockMvc.perform(get(EXPORT).header(HttpHeaders.AUTHORIZATION, login("user@gmail.com")))
+            .andExpect(status().isForbidden())
+            .andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void streamsTheCatalogToAdmins() throws Exception {
+        MvcResult started = mockMvc.perform(
+                get(EXPORT).param("format", "csv")
+                    .header(HttpHeaders.AUTHORIZATION, login("admin@gmail.com")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        // Only the export gets the long timeout, not every async request
+        assertThat(started.getRequest().getAsyncContext().getTimeout())
+            .isEqualTo(Duration.ofMinutes(30).toMillis());
+
+        String csv = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                                       "attachment; filename=\"orchids.csv\""))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(csv)
+            .startsWith("\uFEFFid,isNatural,name,description,url,price,categoryId\r\n");
+        assertThat(csv.split("\r\n")).hasSize(1 + (int) orchidRepository.count());
+        assertThat(csv).contains(",Phalaenopsis,Natural orchid,");
+    }
+
+    @Test
+    void streamsNdjsonByDefault() throws Exception {
+        MvcResult started = mockMvc.perform(
+                get(EXPORT).header(HttpHeaders.AUTHORIZATION, login("manager@gmail.com")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String ndjson = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(ndjson.split("\n")).hasSize((int) orchidRepository.count());
+        assertThat(ndjson).contains("\"name\":\"Cattleya\"");
+    }
+
+}
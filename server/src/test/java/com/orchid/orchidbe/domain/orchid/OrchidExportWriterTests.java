@@ -0,0 +1,110 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidExportFormat;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class OrchidExportWriterTests {
+
+    private static final String BOM = "\uFEFF";
+
+    private static final String HEADER = "id,isNatural,name,description,url,price,categoryId\r\n";
+
+    private static OrchidRes orchid(String name, String description) {
+        return new OrchidRes(7L, true, description, name, "https://img.example/7.jpg", 12.5, 3L);
+    }
+
+    private static String export(OrchidExportFormat format, List<OrchidRes> orchids)
+        throws IOException {
+        var out = new ByteArrayOutputStream();
+        OrchidExportWriter writer = OrchidExportWriter.of(format, out, new ObjectMapper());
+        for (OrchidRes orchid : orchids) {
+            writer.write(orchid);
+        }
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String csvName(String name) throws IOException {
+        String csv = export(OrchidExportFormat.CSV, List.of(orchid(name, null)));
+        String row = csv.substring(BOM.length() + HEADER.length());
+        // Between the isNatural and the (empty) description columns
+        return row.substring("7,true,".length(), row.lastIndexOf(",,https://"));
+    }
+
+    @Test
+    void writesTheHeaderEvenWithoutRows() throws IOException {
+        assertThat(export(OrchidExportFormat.CSV, List.of())).isEqualTo(BOM + HEADER);
+    }
+
+    @Test
+    void writesOneCsvRowPerOrchid() throws IOException {
+        String csv = export(OrchidExportFormat.CSV, List.of(
+            orchid("Lan Hồ Điệp", "Hoa trắng"),
+            new OrchidRes(8L, false, null, "Vanda", null, null, null)));
+
+        assertThat(csv).isEqualTo(BOM + HEADER
+            + "7,true,Lan Hồ Điệp,Hoa trắng,https://img.example/7.jpg,12.5,3\r\n"
+            + "8,false,Vanda,,,,\r\n");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+        "Vanda           | Vanda",
+        "Lan, Tím        | \"Lan, Tím\"",
+        "Lan \"Ngọc\"    | \"Lan \"\"Ngọc\"\"\"",
+        "\"              | \"\"\"\"",
+        "Vanda 5% -2     | Vanda 5% -2",
+    })
+    void quotesOnlyWhatNeedsIt(String name, String expected) throws IOException {
+        assertThat(csvName(name)).isEqualTo(expected);
+    }
+
+    @Test
+    void quotesLineBreaks() throws IOException {
+        assertThat(csvName("Lan\nTím")).isEqualTo("\"Lan\nTím\"");
+        assertThat(csvName("Lan\r\nTím")).isEqualTo("\"Lan\r\nTím\"");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+        "=1+1                  | \"'=1+1\"",
+        "+84 912 345 678       | \"'+84 912 345 678\"",
+        "-2                    | \"'-2\"",
+        "@SUM(A1:A2)           | \"'@SUM(A1:A2)\"",
+        "=HYPERLINK(\"x\",\"y\") | \"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"",
+    })
+    void prefixesFormulas(String name, String expected) throws IOException {
+        assertThat(csvName(name)).isEqualTo(expected);
+    }
+
+    @Test
+    void prefixesLeadingTabsAndCarriageReturns() throws IOException {
+        assertThat(csvName("\t=1+1")).isEqualTo("\"'\t=1+1\"");
+        assertThat(csvName("\r=1+1")).isEqualTo("\"'\r=1+1\"");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws IOException {
+        String ndjson = export(OrchidExportFormat.NDJSON, List.of(
+            orchid("Lan \"Ngọc\"\nTím", "=1+1"), orchid("Vanda", null)));
+
+        String[] lines = ndjson.split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).isEmpty();
+        var mapper = new ObjectMapper();
+        assertThat(mapper.readValue(lines[0], OrchidRes.class))
+            .isEqualTo(orchid("Lan \"Ngọc\"\nTím", "=1+1"));
+        assertThat(mapper.readValue(lines[1], OrchidRes.class)).isEqualTo(orchid("Vanda", null));
+    }
+
+}
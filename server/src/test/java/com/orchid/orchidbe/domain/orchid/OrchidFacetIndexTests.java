@@ -0,0 +1,253 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.CategoryCount;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.NaturalCount;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetPage;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetQuery;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacets;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.PriceBucketCount;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+class OrchidFacetIndexTests {
+
+    private static final double[] BOUNDS = {10, 50};
+
+    private final OrchidFacetIndex index = new OrchidFacetIndex(BOUNDS);
+
+    private static OrchidRes orchid(long id, Long categoryId, boolean natural, Double price) {
+        return new OrchidRes(id, natural, null, "Orchid " + id, null, price, categoryId);
+    }
+
+    private static OrchidFacetQuery query(Set<Long> categories, Boolean natural,
+                                          Set<Integer> buckets) {
+        return new OrchidFacetQuery(categories, natural, buckets);
+    }
+
+    private static List<Long> ids(OrchidFacetPage page) {
+        return page.items().stream().map(OrchidRes::id).toList();
+    }
+
+    private void seed() {
+        index.rebuild(() -> List.of(
+            orchid(1, 1L, true, 5.0),
+            orchid(2, 1L, false, 20.0),
+            orchid(3, 2L, true, 20.0),
+            orchid(4, 2L, true, 80.0),
+            orchid(5, 3L, false, 50.0),
+            orchid(6, null, true, null)));
+    }
+
+    @Test
+    void countsEverythingWithoutFilters() {
+        seed();
+
+        OrchidFacetPage page = index.query(query(null, null, null), 0, 10);
+
+        assertThat(ids(page)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(page.total()).isEqualTo(6);
+        assertThat(page.facets().categories()).containsExactly(
+            new CategoryCount(1L, 2), new CategoryCount(2L, 2), new CategoryCount(3L, 1));
+        assertThat(page.facets().natural()).containsExactly(
+            new NaturalCount(true, 4), new NaturalCount(false, 2));
+        // A price on a bound belongs to the bucket above it
+        assertThat(page.facets().prices()).containsExactly(
+            new PriceBucketCount(0, null, 10.0, 1),
+            new PriceBucketCount(1, 10.0, 50.0, 2),
+            new PriceBucketCount(2, 50.0, null, 2));
+    }
+
+    @Test
+    void countsEachFieldWithoutItsOwnFilter() {
+        seed();
+
+        OrchidFacetPage page = index.query(query(Set.of(1L), true, null), 0, 10);
+
+        assertThat(ids(page)).containsExactly(1L);
+        // Natural orchids per category, whichever category is selected
+        assertThat(page.facets().categories()).containsExactly(
+            new CategoryCount(1L, 1), new CategoryCount(2L, 2), new CategoryCount(3L, 0));
+        // Category 1 per natural flag
+        assertThat(page.facets().natural()).containsExactly(
+            new NaturalCount(true, 1), new NaturalCount(false, 1));
+        assertThat(page.facets().prices()).extracting(PriceBucketCount::count)
+            .containsExactly(1, 0, 0);
+    }
+
+    @Test
+    void orsSelectedValuesOfOneField() {
+        seed();
+
+        OrchidFacetPage page = index.query(query(Set.of(1L, 3L), null, Set.of(1, 2)), 0, 10);
+
+        assertThat(ids(page)).containsExactly(2L, 5L);
+        assertThat(page.total()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesInOrdinalOrder() {
+        seed();
+
+        OrchidFacetPage page = index.query(query(null, true, null), 1, 2);
+
+        assertThat(ids(page)).containsExactly(3L, 4L);
+        assertThat(page.total()).isEqualTo(4);
+    }
+
+    @Test
+    void updatesKeepTheOrdinalAndMoveTheCounts() {
+        seed();
+
+        index.put(orchid(1, 3L, false, 500.0));
+        OrchidFacetPage page = index.query(query(null, null, null), 0, 10);
+
+        assertThat(ids(page)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(page.facets().categories()).containsExactly(
+            new CategoryCount(1L, 1), new CategoryCount(2L, 2), new CategoryCount(3L, 2));
+        assertThat(page.facets().natural()).containsExactly(
+            new NaturalCount(true, 3), new NaturalCount(false, 3));
+        assertThat(ids(index.query(query(Set.of(3L), null, null), 0, 10)))
+            .containsExactly(1L, 5L);
+    }
+
+    @Test
+    void removalsDropEmptyCategories() {
+        seed();
+
+        index.remove(5L);
+        index.put(orchid(7, 4L, true, 1.0));
+        OrchidFacetPage page = index.query(query(null, null, null), 0, 10);
+
+        assertThat(ids(page)).containsExactly(1L, 2L, 3L, 4L, 6L, 7L);
+        assertThat(page.facets().categories()).extracting(CategoryCount::categoryId)
+            .containsExactly(1L, 2L, 4L);
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.query(query(Set.of(3L), null, null), 0, 10).total()).isZero();
+    }
+
+    @Test
+    void matchesABruteForceCountAfterRandomWrites() {
+        var random = new Random(5);
+        var facets = new OrchidFacetIndex(new double[]{10, 25, 50, 100});
+        // Same order as the ordinals: an update keeps its place, a re-added orchid goes last
+        Map<Long, OrchidRes> current = new LinkedHashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            current.put(id, randomOrchid(random, id));
+        }
+        facets.rebuild(() -> List.copyOf(current.values()));
+        for (int write = 0; write < 300; write++) {
+            long id = 1 + random.nextInt(600);
+            if (random.nextInt(3) == 0) {
+                current.remove(id);
+                facets.remove(id);
+            } else {
+                current.put(id, randomOrchid(random, id));
+                facets.put(current.get(id));
+            }
+        }
+
+        for (int q = 0; q < 300; q++) {
+            var query = query(
+                random.nextBoolean() ? null : randomSubset(random, 7, 1L),
+                random.nextBoolean() ? null : random.nextBoolean(),
+                random.nextBoolean() ? null : randomSubset(random, 5, 0).stream()
+                    .map(Long::intValue).collect(TreeSet::new, Set::add, Set::addAll));
+            int offset = random.nextInt(50);
+            assertThat(facets.query(query, offset, 20)).as(query.toString())
+                .isEqualTo(bruteForce(current.values(), query, new double[]{10, 25, 50, 100},
+                                      offset, 20));
+        }
+    }
+
+    @Test
+    void rejectsUnsortedPriceBounds() {
+        assertThatThrownBy(() -> new OrchidFacetIndex(new double[]{10, 10}))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OrchidFacetIndex(new double[]{50, 10}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OrchidRes randomOrchid(Random random, long id) {
+        Long category = random.nextInt(10) == 0 ? null : 1L + random.nextInt(6);
+        Double price = random.nextInt(10) == 0 ? null : random.nextInt(150) * 1.0;
+        return orchid(id, category, random.nextBoolean(), price);
+    }
+
+    private static Set<Long> randomSubset(Random random, int values, long first) {
+        Set<Long> subset = new HashSet<>();
+        for (long value = first; value < first + values; value++) {
+            if (random.nextInt(3) == 0) {
+                subset.add(value);
+            }
+        }
+        return subset;
+    }
+
+    private static int bucket(Double price, double[] bounds) {
+        if (price == null) {
+            return -1;
+        }
+        int bucket = 0;
+        while (bucket < bounds.length && bounds[bucket] <= price) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static OrchidFacetPage bruteForce(
+        Iterable<OrchidRes> orchids, OrchidFacetQuery query, double[] bounds, int offset,
+        int limit
+    ) {
+        Predicate<OrchidRes> category = orchid -> query.categoryIds() == null
+            || query.categoryIds().isEmpty() || query.categoryIds().contains(orchid.categoryId());
+        Predicate<OrchidRes> natural = orchid -> query.isNatural() == null
+            || query.isNatural() == orchid.isNatural();
+        Predicate<OrchidRes> price = orchid -> query.priceBuckets() == null
+            || query.priceBuckets().isEmpty()
+            || query.priceBuckets().contains(bucket(orchid.price(), bounds));
+
+        List<OrchidRes> all = new ArrayList<>();
+        orchids.forEach(all::add);
+        List<OrchidRes> matching = all.stream()
+            .filter(category.and(natural).and(price)).toList();
+
+        List<CategoryCount> categories = all.stream().map(OrchidRes::categoryId)
+            .filter(Objects::nonNull).distinct().sorted()
+            .map(id -> new CategoryCount(id, (int) all.stream()
+                .filter(natural.and(price))
+                .filter(orchid -> id.equals(orchid.categoryId())).count()))
+            .toList();
+        List<NaturalCount> naturals = List.of(true, false).stream()
+            .map(flag -> new NaturalCount(flag, (int) all.stream()
+                .filter(category.and(price))
+                .filter(orchid -> orchid.isNatural() == flag).count()))
+            .toList();
+        List<PriceBucketCount> prices = new ArrayList<>();
+        for (int bucket = 0; bucket <= bounds.length; bucket++) {
+            int b = bucket;
+            prices.add(new PriceBucketCount(
+                bucket, bucket == 0 ? null : bounds[bucket - 1],
+                bucket == bounds.length ? null : bounds[bucket],
+                (int) all.stream().filter(category.and(natural))
+                    .filter(orchid -> bucket(orchid.price(), bounds) == b).count()));
+        }
+
+        return new OrchidFacetPage(
+            matching.stream().skip(offset).limit(limit).toList(), matching.size(),
+            new OrchidFacets(categories, naturals, prices));
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.orchid.orchidbe.domain.category.Category;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidQuery;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidSort;
+import com.orchid.orchidbe.repositories.CategoryRepository;
+import com.orchid.orchidbe.repositories.OrchidRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Walking a keyset listing page by page must return every row of the category exactly once, in
+ * the same order as one big page, including rows that share a sort key or have none. The rows
+ * live in a category of their own so orchids from other tests do not show up.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalog;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "catalog.cache.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class OrchidKeysetPagingTests {
+
+    @Autowired
+    private OrchidService orchidService;
+
+    @Autowired
+    private OrchidRepository orchidRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Category category;
+    private List<Orchid> orchids;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(
+            Category.builder().name("Keyset " + UUID.randomUUID()).build());
+        orchids = new ArrayList<>();
+        orchid("Brassia", 20.0);
+        orchid(null, 20.0);
+        orchid("Aerides", null);
+        orchid("Brassia", 10.0);
+        orchid("Cattleya", null);
+        orchid(null, 30.0);
+        orchid("Aerides", 20.0);
+        orchid("Brassia", null);
+        orchid("Dendrobium", 10.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchidRepository.deleteAll(orchids);
+        categoryRepository.delete(category);
+    }
+
+    private void orchid(String name, Double price) {
+        orchids.add(orchidRepository.save(Orchid.builder()
+                                              .name(name)
+                                              .price(price)
+                                              .isNatural(true)
+                                              .category(category)
+                                              .build()));
+    }
+
+    private OrchidQuery query(OrchidSort sort, boolean descending) {
+        return new OrchidQuery(sort, descending, category.getId(), null, null, null);
+    }
+
+    // Ascending puts null keys last with ties broken by id, descending is the exact reverse
+    private List<Long> expected(OrchidSort sort, boolean descending) {
+        Function<Orchid, Comparable<?>> key = switch (sort) {
+            case ID -> Orchid::getId;
+            case PRICE -> Orchid::getPrice;
+            case NAME -> Orchid::getName;
+        };
+        @SuppressWarnings("unchecked")
+        Comparator<Orchid> byKey = Comparator.comparing(
+            orchid -> (Comparable<Object>) key.apply(orchid),
+            Comparator.nullsLast(Comparator.naturalOrder()));
+        List<Long> ids = orchids.stream()
+            .sorted(byKey.thenComparing(Orchid::getId))
+            .map(Orchid::getId)
+            .toList();
+        return descending ? ids.reversed() : ids;
+    }
+
+    private List<Long> walk(OrchidQuery query, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = orchidService.getPage(query, cursor, limit);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(limit);
+            page.items().forEach(item -> ids.add(item.id()));
+            cursor = page.nextCursor();
+            assertThat(ids).hasSizeLessThanOrEqualTo(orchids.size());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static Stream<Arguments> orderings() {
+        return Stream.of(OrchidSort.values())
+            .flatMap(sort -> Stream.of(false, true)
+                .flatMap(descending -> Stream.of(1, 2, 4)
+                    .map(limit -> Arguments.of(sort, descending, limit))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderings")
+    void pagesConcatenateToTheFullOrdering(OrchidSort sort, boolean descending, int limit) {
+        var query = query(sort, descending);
+        List<Long> all = orchidService.getPage(query, null, OrchidServiceImpl.MAX_PAGE_SIZE)
+            .items().stream()
+            .map(OrchidDTO.OrchidRes::id)
+            .toList();
+
+        assertThat(all).isEqualTo(expected(sort, descending));
+        assertThat(walk(query, limit)).isEqualTo(all);
+    }
+
+    @Test
+    void cursorSurvivesAnEncodeDecodeRoundTrip() {
+        var query = new OrchidQuery(OrchidSort.NAME, true, category.getId(), true, 5.0, 50.0);
+        var cursor = new OrchidCursor(query, 42L, null, "Aerides");
+
+        assertThat(OrchidCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void cursorKeepsItsOwnQueryWhenReusedWithAnother() {
+        var byPrice = query(OrchidSort.PRICE, false);
+        var first = orchidService.getPage(byPrice, null, 3);
+        var second = orchidService.getPage(byPrice, first.nextCursor(), 3);
+
+        var reused = orchidService.getPage(query(OrchidSort.NAME, true), first.nextCursor(), 3);
+
+        assertThat(reused).isEqualTo(second);
+        assertThat(OrchidCursor.decode(reused.nextCursor()).query()).isEqualTo(byPrice);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not a cursor!", "e30", "bnVsbA", "eyJxdWVyeSI6bnVsbH0"})
+    void rejectsMalformedCursors(String cursor) throws Exception {
+        assertThatThrownBy(() -> orchidService.getPage(query(OrchidSort.ID, false), cursor, 2))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+        mockMvc.perform(get("/api/public/orchids/page").param("cursor", cursor))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsATamperedCursor() throws Exception {
+        String cursor = orchidService.getPage(query(OrchidSort.PRICE, false), null, 2)
+            .nextCursor();
+        String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String unknownSort = json.replace("\"PRICE\"", "\"RATING\"");
+        String truncated = cursor.substring(0, cursor.length() / 2);
+
+        for (String tampered : List.of(
+            Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(unknownSort.getBytes(StandardCharsets.UTF_8)),
+            truncated)) {
+            mockMvc.perform(get("/api/public/orchids/page").param("cursor", tampered))
+                .andExpect(status().isBadRequest());
+        }
+    }
+
+}
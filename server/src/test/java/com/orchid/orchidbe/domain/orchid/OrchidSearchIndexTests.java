@@ -0,0 +1,184 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidHit;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class OrchidSearchIndexTests {
+
+    private static final String[] WORDS = {
+        "lan", "ho", "diep", "vanda", "dendrobium", "phi", "tim", "trang", "vang",
+        "do", "rung", "cay", "hoa", "thom", "nhiet", "doi", "lai", "giong", "quy", "hiem", "nho",
+        "lon", "canh", "chau", "treo", "mini", "bach", "ngoc", "kim", "tai", "trau"
+    };
+
+    private final OrchidSearchIndex index = new OrchidSearchIndex();
+
+    private static OrchidRes orchid(long id, String name, String description) {
+        return new OrchidRes(id, true, description, name, null, 10.0, 1L);
+    }
+
+    private static List<Long> ids(List<OrchidHit> hits) {
+        return hits.stream().map(hit -> hit.orchid().id()).toList();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        index.put(orchid(1, "Dendrobium", "Often grown next to a vanda"));
+        index.put(orchid(2, "Vanda Coerulea", "Blue flowers"));
+        index.put(orchid(3, "Phalaenopsis", "Easy to grow"));
+
+        assertThat(ids(index.search("vanda", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void ranksDocumentsMatchingMoreTermsFirst() {
+        index.put(orchid(1, "Lan Vanda", "Trang"));
+        index.put(orchid(2, "Lan Vanda Xanh", "Tim"));
+        index.put(orchid(3, "Lan Rung", "Trang"));
+
+        List<OrchidHit> hits = index.search("vanda xanh", 10);
+
+        assertThat(ids(hits)).containsExactly(2L, 1L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        index.put(orchid(1, "Lan Hồ Điệp", "Hoa to, nhiều màu"));
+        index.put(orchid(2, "Lan Phi Điệp", "Thân dài"));
+        index.put(orchid(3, "Lan Rung", "Lai tu ho diep"));
+
+        assertThat(ids(index.search("ho diep", 10))).containsExactlyInAnyOrder(1L, 2L, 3L)
+            .startsWith(1L);
+        assertThat(ids(index.search("HỒ ĐIỆP", 10))).isEqualTo(ids(index.search("ho diep", 10)));
+        assertThat(ids(index.search("nhieu mau", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void returnsNothingForEmptyQueriesOrLimits() {
+        index.put(orchid(1, "Vanda", null));
+
+        assertThat(index.search("  ,. ", 10)).isEmpty();
+        assertThat(index.search("vanda", 0)).isEmpty();
+        assertThat(index.search("cattleya", 10)).isEmpty();
+    }
+
+    @Test
+    void prunedTopHitsMatchAnExhaustiveSearch() {
+        var random = new Random(42);
+        for (long id = 1; id <= 3000; id++) {
+            index.put(orchid(id, sentence(random, 1 + random.nextInt(3)),
+                             sentence(random, random.nextInt(25))));
+        }
+
+        for (int q = 0; q < 200; q++) {
+            String query = sentence(random, 1 + random.nextInt(4));
+            // Never fills up, so nothing gets pruned
+            List<OrchidHit> all = index.search(query, index.size() + 1);
+            for (int limit : new int[]{1, 3, 10, 50}) {
+                List<OrchidHit> expected = all.subList(0, Math.min(limit, all.size()));
+                assertThat(index.search(query, limit)).as("%s top %d", query, limit)
+                    .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void findsUpdatedTextOnly() {
+        index.put(orchid(1, "Vanda", "Blue"));
+        index.put(orchid(1, "Dendrobium", "White"));
+
+        assertThat(index.search("vanda", 10)).isEmpty();
+        assertThat(index.search("dendrobium", 10)).extracting(hit -> hit.orchid().name())
+            .containsExactly("Dendrobium");
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1L);
+        index.remove(2L);
+        assertThat(index.search("dendrobium", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void scoresTheSameAfterCompaction() {
+        var random = new Random(7);
+        List<OrchidRes> latest = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            latest.add(orchid(id, sentence(random, 2), sentence(random, 10)));
+        }
+        // Enough rewrites to leave more tombstones than the compaction minimum
+        for (int round = 0; round < 12; round++) {
+            for (int i = 0; i < latest.size(); i++) {
+                OrchidRes old = latest.get(i);
+                latest.set(i, orchid(old.id(), sentence(random, 2), sentence(random, 10)));
+                index.put(latest.get(i));
+            }
+        }
+        for (long id = 1; id <= 100; id += 3) {
+            index.remove(id);
+        }
+
+        var fresh = new OrchidSearchIndex();
+        latest.stream().filter(orchid -> orchid.id() % 3 != 1).forEach(fresh::put);
+        assertThat(index.size()).isEqualTo(fresh.size());
+        for (String query : List.of("lan", "ho diep", "vanda tim trang", "hoa thom rung")) {
+            assertThat(index.search(query, 20)).as(query).isEqualTo(fresh.search(query, 20));
+        }
+    }
+
+    @Test
+    void keepsWritesMadeWhileRebuilding() throws Exception {
+        index.put(orchid(1, "Vanda", null));
+        index.put(orchid(2, "Dendrobium", null));
+        var loading = new CountDownLatch(1);
+        var written = new CountDownLatch(1);
+
+        // The snapshot was read before the writes below committed
+        var rebuild = CompletableFuture.runAsync(() -> index.rebuild(() -> {
+            loading.countDown();
+            await(written);
+            return List.of(orchid(1, "Vanda", null), orchid(2, "Dendrobium", null),
+                           orchid(3, "Cattleya", null));
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        index.put(orchid(1, "Vanda Coerulea", null));
+        index.remove(2L);
+        index.put(orchid(4, "Phalaenopsis", null));
+        written.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertThat(ids(index.search("coerulea", 10))).containsExactly(1L);
+        assertThat(index.search("dendrobium", 10)).isEmpty();
+        assertThat(ids(index.search("cattleya phalaenopsis", 10)))
+            .containsExactlyInAnyOrder(3L, 4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static String sentence(Random random, int words) {
+        var sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            // Squared to skew towards the first words, like real catalog text
+            double skew = random.nextDouble();
+            sentence.append(WORDS[(int) (skew * skew * WORDS.length)]).append(' ');
+        }
+        return sentence.toString();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
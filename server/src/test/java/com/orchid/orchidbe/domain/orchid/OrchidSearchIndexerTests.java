@@ -0,0 +1,78 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidFacetQuery;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidSuggestion;
+import com.orchid.orchidbe.domain.order.OrderDetailDTO.OrchidSales;
+import com.orchid.orchidbe.repositories.OrchidRepository;
+import com.orchid.orchidbe.repositories.OrderDetailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrchidSearchIndexerTests {
+
+    private final OrchidRepository orchidRepository = mock(OrchidRepository.class);
+    private final OrderDetailRepository orderDetailRepository = mock(OrderDetailRepository.class);
+    private final OrchidSearchIndex searchIndex = new OrchidSearchIndex();
+    private final OrchidSuggestIndex suggestIndex = new OrchidSuggestIndex();
+    private final OrchidFacetIndex facetIndex = new OrchidFacetIndex(new double[]{10});
+
+    private OrchidSearchIndexer indexer;
+
+    private static OrchidRes orchid(long id, String name) {
+        return new OrchidRes(id, true, null, name, null, 5.0, 1L);
+    }
+
+    @BeforeEach
+    void setUp() {
+        indexer = new OrchidSearchIndexer(orchidRepository, orderDetailRepository, searchIndex,
+                                          suggestIndex, facetIndex, new SimpleMeterRegistry());
+        indexer.init();
+        when(orderDetailRepository.findUnitsSoldPerOrchid(any()))
+            .thenReturn(List.of(new OrchidSales(2L, 5L)));
+    }
+
+    @Test
+    void readsTheCatalogOncePerRebuild() {
+        when(orchidRepository.findAllRes())
+            .thenReturn(List.of(orchid(1, "Vanda Xanh"), orchid(2, "Vanda Tím")));
+
+        indexer.rebuild();
+
+        verify(orchidRepository, times(1)).findAllRes();
+        assertThat(searchIndex.size()).isEqualTo(2);
+        assertThat(facetIndex.size()).isEqualTo(2);
+        // Ranked by the sales passed along with the same snapshot
+        assertThat(suggestIndex.suggest("vanda", 10)).extracting(OrchidSuggestion::id)
+            .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void keepsAWriteMadeDuringTheReadInEveryIndex() {
+        when(orchidRepository.findAllRes()).thenAnswer(invocation -> {
+            // What OrchidServiceImpl does for a create that commits while the rows are read
+            OrchidRes created = orchid(3, "Cattleya");
+            searchIndex.put(created);
+            suggestIndex.put(created);
+            facetIndex.put(created);
+            return List.of(orchid(1, "Vanda"));
+        });
+
+        indexer.rebuild();
+
+        assertThat(searchIndex.search("cattleya", 10)).hasSize(1);
+        assertThat(suggestIndex.suggest("catt", 10)).hasSize(1);
+        assertThat(facetIndex.query(new OrchidFacetQuery(null, null, null), 0, 10).total())
+            .isEqualTo(2);
+    }
+
+}
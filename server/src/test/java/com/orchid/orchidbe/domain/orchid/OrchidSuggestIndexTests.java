@@ -0,0 +1,188 @@
+package com.orchid.orchidbe.domain.orchid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidRes;
+import com.orchid.orchidbe.domain.orchid.OrchidDTO.OrchidSuggestion;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class OrchidSuggestIndexTests {
+
+    private static final String[] WORDS = {
+        "Lan", "Hồ", "Điệp", "Hoa", "Vanda", "Trắng", "Tím", "Rừng", "Hoàng", "Thảo", "Kim"
+    };
+
+    private final OrchidSuggestIndex index = new OrchidSuggestIndex();
+
+    private static OrchidRes orchid(long id, String name) {
+        return new OrchidRes(id, true, null, name, null, 10.0, 1L);
+    }
+
+    private static List<Long> ids(List<OrchidSuggestion> suggestions) {
+        return suggestions.stream().map(OrchidSuggestion::id).toList();
+    }
+
+    @Test
+    void matchesPrefixesOfAnyWord() {
+        index.rebuild(() -> List.of(orchid(1, "Lan Hồ Điệp Trắng"), orchid(2, "Hoa Mai"),
+                                    orchid(3, "Vanda")), Map.of());
+
+        assertThat(ids(index.suggest("lan", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("DIỆP", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("ho diep t", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("ho", 10))).containsExactlyInAnyOrder(1L, 2L);
+        // A trailing space asks for the whole word
+        assertThat(ids(index.suggest("ho ", 10))).containsExactly(1L);
+        assertThat(index.suggest("iep", 10)).isEmpty();
+        assertThat(index.suggest("diep hoa", 10)).isEmpty();
+    }
+
+    @Test
+    void returnsNothingForEmptyQueriesOrLimits() {
+        index.rebuild(() -> List.of(orchid(1, "Vanda")), Map.of());
+
+        assertThat(index.suggest("", 10)).isEmpty();
+        assertThat(index.suggest(" - ", 10)).isEmpty();
+        assertThat(index.suggest("v", 0)).isEmpty();
+    }
+
+    @Test
+    void ranksBySalesThenShorterNameThenId() {
+        index.rebuild(() -> List.of(orchid(1, "Vanda Xanh"), orchid(2, "Vanda Tím Đậm"),
+                                    orchid(3, "Vanda Hồng"), orchid(4, "Vanda Đỏ"),
+                                    orchid(5, "Vanda Vàng")),
+                      Map.of(2L, 7L, 5L, 1L));
+
+        // 1, 4 and 3 sold nothing; 1 and 3 have the same name length, so the lower id wins
+        assertThat(ids(index.suggest("vanda", 10))).containsExactly(2L, 5L, 4L, 1L, 3L);
+    }
+
+    @Test
+    void capsSuggestionsAtTopK() {
+        List<OrchidRes> orchids = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            orchids.add(orchid(id, "Lan " + id));
+        }
+        index.rebuild(() -> orchids, Map.of());
+
+        assertThat(index.suggest("lan", 100)).hasSize(OrchidSuggestIndex.TOP_K);
+        assertThat(index.suggest("lan", 3)).hasSize(3);
+    }
+
+    @Test
+    void scansPastHiddenBaseEntries() {
+        List<OrchidRes> orchids = new ArrayList<>();
+        Map<Long, Long> sales = new HashMap<>();
+        for (long id = 1; id <= 25; id++) {
+            orchids.add(orchid(id, "Lan " + id));
+            sales.put(id, 100 - id);
+        }
+        index.rebuild(() -> orchids, sales);
+
+        // Empties most of the stored top list of the "lan" node
+        for (long id = 1; id <= 6; id++) {
+            index.remove(id);
+        }
+        index.put(orchid(7L, "Mai Vàng"));
+        index.put(orchid(8L, "Lan Tám"));
+
+        var fresh = new OrchidSuggestIndex();
+        fresh.rebuild(() -> {
+            List<OrchidRes> current = new ArrayList<>(orchids.subList(8, orchids.size()));
+            current.add(orchid(7L, "Mai Vàng"));
+            current.add(orchid(8L, "Lan Tám"));
+            return current;
+        }, sales);
+        assertThat(index.suggest("lan", 10)).hasSize(10).isEqualTo(fresh.suggest("lan", 10));
+        assertThat(ids(index.suggest("lan", 3))).containsExactly(8L, 9L, 10L);
+        assertThat(ids(index.suggest("mai", 10))).containsExactly(7L);
+    }
+
+    @Test
+    void keepsWritesMadeWhileRebuilding() {
+        index.rebuild(() -> List.of(orchid(1, "Vanda"), orchid(2, "Dendrobium")), Map.of());
+
+        // Written after the snapshot below was read
+        index.rebuild(() -> {
+            index.put(orchid(1, "Vanda Coerulea"));
+            index.remove(2L);
+            index.put(orchid(3, "Cattleya"));
+            return List.of(orchid(1, "Vanda"), orchid(2, "Dendrobium"));
+        }, Map.of());
+
+        assertThat(index.suggest("vanda", 10)).extracting(OrchidSuggestion::name)
+            .containsExactly("Vanda Coerulea");
+        assertThat(index.suggest("dendro", 10)).isEmpty();
+        assertThat(ids(index.suggest("catt", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void matchesABruteForceSearchAfterRandomWrites() {
+        var random = new Random(11);
+        Map<Long, OrchidRes> current = new LinkedHashMap<>();
+        Map<Long, Long> sales = new HashMap<>();
+        for (long id = 1; id <= 400; id++) {
+            current.put(id, orchid(id, name(random)));
+            sales.put(id, (long) random.nextInt(5));
+        }
+        index.rebuild(() -> List.copyOf(current.values()), sales);
+        for (int write = 0; write < 150; write++) {
+            long id = 1 + random.nextInt(450);
+            if (random.nextInt(3) == 0) {
+                current.remove(id);
+                index.remove(id);
+            } else {
+                current.put(id, orchid(id, name(random)));
+                index.put(current.get(id));
+            }
+        }
+
+        for (String word : WORDS) {
+            String folded = OrchidText.fold(word);
+            for (String query : List.of(folded.substring(0, 1), folded, "lan " + folded)) {
+                assertThat(index.suggest(query, 10)).as(query)
+                    .isEqualTo(bruteForce(current.values(), sales, query, 10));
+            }
+        }
+    }
+
+    private static List<OrchidSuggestion> bruteForce(
+        Iterable<OrchidRes> orchids, Map<Long, Long> sales, String query, int limit
+    ) {
+        List<OrchidRes> matches = new ArrayList<>();
+        for (OrchidRes orchid : orchids) {
+            List<String> tokens = OrchidText.tokens(orchid.name());
+            for (int word = 0; word < tokens.size(); word++) {
+                if (String.join(" ", tokens.subList(word, tokens.size())).startsWith(query)) {
+                    matches.add(orchid);
+                    break;
+                }
+            }
+        }
+        return matches.stream()
+            .sorted(Comparator.<OrchidRes>comparingLong(
+                    orchid -> -sales.getOrDefault(orchid.id(), 0L))
+                        .thenComparingInt(orchid -> orchid.name().length())
+                        .thenComparing(OrchidRes::id))
+            .limit(limit)
+            .map(orchid -> new OrchidSuggestion(orchid.id(), orchid.name()))
+            .toList();
+    }
+
+    private static String name(Random random) {
+        int words = 1 + random.nextInt(3);
+        var name = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            name.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+}
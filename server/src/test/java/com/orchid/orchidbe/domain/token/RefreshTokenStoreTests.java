@@ -0,0 +1,99 @@
+package com.orchid.orchidbe.domain.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.token.RefreshTokenStore.Session;
+import com.orchid.orchidbe.repositories.TokenRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RefreshTokenStoreTests {
+
+    private TokenRepository tokenRepository;
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository = mock(TokenRepository.class);
+        store = new RefreshTokenStore(tokenRepository);
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+    }
+
+    private static Session session(long tokenId, LocalDateTime refreshExpiresAt) {
+        return new Session(tokenId, 1L, "access-" + tokenId, LocalDateTime.now().plusHours(1),
+                           refreshExpiresAt, false, false);
+    }
+
+    @Test
+    void coldMissReadsTheTableOnce() {
+        Token token = Token.builder()
+            .id(7L)
+            .account(Account.builder().id(3L).build())
+            .token("access")
+            .refreshExpirationDate(LocalDateTime.now().plusDays(1))
+            .build();
+        when(tokenRepository.findByRefreshTokenHash("r")).thenReturn(Optional.of(token));
+
+        assertThat(store.find("r")).get().extracting(Session::tokenId, Session::accountId)
+            .containsExactly(7L, 3L);
+        assertThat(store.find("r")).isPresent();
+        verify(tokenRepository, times(1)).findByRefreshTokenHash("r");
+    }
+
+    @Test
+    void rotatedTokenPointsToItsFamily() {
+        Session session = session(7L, LocalDateTime.now().plusDays(1));
+
+        store.rotate("old", "new", session);
+
+        assertThat(store.findRotatedFamily("old")).contains(7L);
+        assertThat(store.findRotatedFamily("new")).isEmpty();
+        assertThat(store.find("new")).contains(session);
+    }
+
+    @Test
+    void rotatedEntryLivesAsLongAsTheSession() {
+        store.rotate("old", "new", session(7L, LocalDateTime.now().minusSeconds(1)));
+
+        assertThat(store.findRotatedFamily("old")).isEmpty();
+    }
+
+    @Test
+    void evictFamilyDropsCurrentAndRotatedTokens() {
+        store.rotate("a", "b", session(7L, LocalDateTime.now().plusDays(1)));
+        store.rotate("b", "c", session(7L, LocalDateTime.now().plusDays(1)));
+        store.rotate("x", "y", session(8L, LocalDateTime.now().plusDays(1)));
+
+        store.evictFamily(7L);
+
+        assertThat(store.findRotatedFamily("a")).isEmpty();
+        assertThat(store.findRotatedFamily("b")).isEmpty();
+        assertThat(store.find("c")).isEmpty();
+        assertThat(store.findRotatedFamily("x")).contains(8L);
+        assertThat(store.find("y")).isPresent();
+    }
+
+    @Test
+    void staysWithinBound() {
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+        for (long id = 0; id < 5; id++) {
+            store.rotate("old" + id, "new" + id, session(id, LocalDateTime.now().plusDays(1)));
+        }
+
+        assertThat(store.find("new4")).isPresent();
+        long cached = LongStream.range(0, 5)
+            .filter(id -> store.findRotatedFamily("old" + id).isPresent())
+            .count();
+        assertThat(cached).isEqualTo(2);
+    }
+
+}
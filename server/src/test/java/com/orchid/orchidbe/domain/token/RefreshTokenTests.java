@@ -0,0 +1,142 @@
+package com.orchid.orchidbe.domain.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import com.orchid.orchidbe.repositories.AccountRepository;
+import com.orchid.orchidbe.repositories.RoleRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Refresh token rotation end to end: every refresh token works once, a replay revokes the whole
+ * session, and each refresh signs the account as it is now, not as it was at login.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class RefreshTokenTests {
+
+    private static final String PASSWORD = "Secret123^^";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenUtils jwtTokenUtils;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = accountRepository.save(Account.builder()
+            .name("Refresh")
+            .email("refresh-" + UUID.randomUUID() + "@example.com")
+            .password(passwordEncoder.encode(PASSWORD))
+            .role(roleRepository.findByName(RoleName.USER).orElseThrow())
+            .build());
+    }
+
+    private String login() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                                          .contentType(MediaType.APPLICATION_JSON)
+                                          .content("""
+                                              {"email": "%s", "password": "%s"}"""
+                                                       .formatted(account.getEmail(), PASSWORD)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.data.token.refresh_token");
+    }
+
+    private String refresh(String refreshToken, ResultMatcher expected) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh-token")
+                                   .contentType(MediaType.APPLICATION_JSON)
+                                   .content("""
+                                       {"refreshToken": "%s"}""".formatted(refreshToken)))
+            .andExpect(expected)
+            .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void everyRefreshTokenWorksOnce() throws Exception {
+        String first = login();
+        String second = JsonPath.read(refresh(first, status().isOk()),
+                                      "$.data.token.refresh_token");
+        String third = JsonPath.read(refresh(second, status().isOk()),
+                                     "$.data.token.refresh_token");
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(third).isNotEqualTo(second);
+    }
+
+    @Test
+    void replayRevokesTheSession() throws Exception {
+        String first = login();
+        String second = JsonPath.read(refresh(first, status().isOk()),
+                                      "$.data.token.refresh_token");
+
+        refresh(first, status().isUnauthorized());
+
+        // The legitimate holder is logged out too, the family is gone
+        refresh(second, status().isUnauthorized());
+    }
+
+    @Test
+    void refreshSignsTheCurrentRole() throws Exception {
+        String refreshToken = login();
+        account.setRole(roleRepository.findByName(RoleName.MANAGER).orElseThrow());
+        accountRepository.save(account);
+
+        String accessToken = JsonPath.read(refresh(refreshToken, status().isOk()),
+                                           "$.data.token.access_token");
+
+        assertThat(jwtTokenUtils.verify(accessToken).role()).isEqualTo(RoleName.MANAGER);
+    }
+
+    @Test
+    void deletedAccountCannotRefresh() throws Exception {
+        String refreshToken = login();
+        // Leave the session row behind, as a delete racing the refresh would
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", account.getId());
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+
+        refresh(refreshToken, status().isUnauthorized());
+        // Revoked, not just refused once
+        refresh(refreshToken, status().isUnauthorized());
+    }
+
+}
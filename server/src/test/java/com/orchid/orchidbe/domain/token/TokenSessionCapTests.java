@@ -0,0 +1,121 @@
+package com.orchid.orchidbe.domain.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import com.orchid.orchidbe.repositories.AccountRepository;
+import com.orchid.orchidbe.repositories.RoleRepository;
+import com.orchid.orchidbe.repositories.TokenRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * A user keeps at most three sessions: a new login evicts the oldest non-mobile session first,
+ * and concurrent logins queue on the account row so they cannot overrun the cap together.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class TokenSessionCapTests {
+
+    private static final int MAX_TOKENS = 3;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = accountRepository.save(Account.builder()
+            .name("Sessions")
+            .email("sessions-" + UUID.randomUUID() + "@example.com")
+            .password("unused")
+            .role(roleRepository.findByName(RoleName.USER).orElseThrow())
+            .build());
+    }
+
+    private Long login(boolean mobile) {
+        return tokenService.addToken(account, "token-" + UUID.randomUUID(), mobile).getId();
+    }
+
+    private List<Long> sessions() {
+        return tokenRepository.findAll().stream()
+            .filter(token -> token.getAccount().getId().equals(account.getId()))
+            .map(Token::getId)
+            .sorted()
+            .toList();
+    }
+
+    @Test
+    void evictsTheOldestNonMobileSessionFirst() {
+        Long phone = login(true);
+        Long laptop = login(false);
+        Long desktop = login(false);
+        assertThat(sessions()).containsExactly(phone, laptop, desktop);
+
+        Long tablet = login(true);
+        assertThat(sessions()).containsExactly(phone, desktop, tablet);
+
+        Long browser = login(false);
+        assertThat(sessions()).containsExactly(phone, tablet, browser);
+
+        Long secondPhone = login(true);
+        assertThat(sessions()).containsExactly(phone, tablet, secondPhone);
+
+        // Only mobile sessions left, the oldest of them goes
+        Long thirdPhone = login(true);
+        assertThat(sessions()).containsExactly(tablet, secondPhone, thirdPhone);
+    }
+
+    @Test
+    void concurrentLoginsCannotOverrunTheCap() throws Exception {
+        int logins = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        try {
+            var start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                boolean mobile = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return login(mobile);
+                }));
+            }
+            start.countDown();
+            for (Future<Long> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(sessions()).hasSize(MAX_TOKENS);
+        assertThat(tokenRepository.countByAccountId(account.getId())).isEqualTo(MAX_TOKENS);
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.orchid.orchidbe.domain.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.orchid.orchidbe.repositories.TokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenSweeperTests {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement lock = mock(PreparedStatement.class);
+    private final PreparedStatement unlock = mock(PreparedStatement.class);
+    private final ResultSet lockResult = mock(ResultSet.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TokenSweeper sweeper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sweeper = new TokenSweeper(tokenRepository, jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(sweeper, "maxBatches", 5);
+        ReflectionTestUtils.setField(sweeper, "batchPauseMillis", 0L);
+        sweeper.init();
+
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Void>>any()))
+            .thenAnswer(invocation -> invocation.<ConnectionCallback<Void>>getArgument(0)
+                .doInConnection(connection));
+        postgres(true);
+        when(connection.prepareStatement("SELECT pg_try_advisory_lock(?)")).thenReturn(lock);
+        when(connection.prepareStatement("SELECT pg_advisory_unlock(?)")).thenReturn(unlock);
+        when(lock.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        lockHeldElsewhere(false);
+    }
+
+    private void postgres(boolean postgres) throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(postgres ? "PostgreSQL" : "H2");
+        when(connection.getMetaData()).thenReturn(metaData);
+    }
+
+    private void lockHeldElsewhere(boolean held) throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(!held);
+    }
+
+    private double removed() {
+        return meterRegistry.counter("auth.token.sweeper.removed").count();
+    }
+
+    @Test
+    void deletesBatchesUntilOneComesBackShort() throws Exception {
+        when(tokenRepository.deleteExpiredBatch(any(), eq(BATCH_SIZE)))
+            .thenReturn(BATCH_SIZE, BATCH_SIZE, 37, BATCH_SIZE);
+
+        sweeper.sweep();
+
+        verify(tokenRepository, times(3)).deleteExpiredBatch(any(), eq(BATCH_SIZE));
+        assertThat(removed()).isEqualTo(2 * BATCH_SIZE + 37);
+        verify(unlock).execute();
+    }
+
+    @Test
+    void stopsRightAwayWhenNothingIsExpired() throws Exception {
+        when(tokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(0);
+
+        sweeper.sweep();
+
+        verify(tokenRepository, times(1)).deleteExpiredBatch(any(), anyInt());
+        assertThat(removed()).isZero();
+    }
+
+    @Test
+    void stopsAtMaxBatchesAndSweepsTheRestNextRun() throws Exception {
+        when(tokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(BATCH_SIZE);
+
+        sweeper.sweep();
+
+        verify(tokenRepository, times(5)).deleteExpiredBatch(any(), anyInt());
+        assertThat(removed()).isEqualTo(5 * BATCH_SIZE);
+    }
+
+    @Test
+    void usesOneCutoffForTheWholeRun() throws Exception {
+        when(tokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(BATCH_SIZE, 1);
+        LocalDateTime before = LocalDateTime.now();
+
+        sweeper.sweep();
+
+        var captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(tokenRepository, times(2)).deleteExpiredBatch(captor.capture(), anyInt());
+        assertThat(captor.getAllValues()).hasSize(2).allSatisfy(
+            cutoff -> assertThat(cutoff).isAfterOrEqualTo(before)
+                .isEqualTo(captor.getAllValues().get(0)));
+    }
+
+    @Test
+    void skipsTheRunWhenAnotherNodeHoldsTheLock() throws Exception {
+        lockHeldElsewhere(true);
+
+        sweeper.sweep();
+
+        verify(tokenRepository, never()).deleteExpiredBatch(any(), anyInt());
+        // Never release a lock this node did not take
+        verify(connection, never()).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    void releasesTheLockWhenABatchFails() throws Exception {
+        when(tokenRepository.deleteExpiredBatch(any(), anyInt()))
+            .thenThrow(new IllegalStateException("connection lost"));
+
+        assertThatThrownBy(sweeper::sweep).hasMessage("connection lost");
+
+        verify(unlock).execute();
+    }
+
+    @Test
+    void sweepsWithoutALockOnOtherDatabases() throws Exception {
+        postgres(false);
+        when(tokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(3);
+
+        sweeper.sweep();
+
+        verify(tokenRepository).deleteExpiredBatch(any(), anyInt());
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(sweeper, "enabled", false);
+
+        sweeper.sweep();
+
+        verify(jdbcTemplate, never()).execute(ArgumentMatchers.<ConnectionCallback<Void>>any());
+        verify(tokenRepository, never()).deleteExpiredBatch(any(), anyInt());
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.orchid.orchidbe.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AuthRateLimitFilterTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AuthRateLimitFilter(Jackson2ObjectMapperBuilder.json().build(), meterRegistry);
+        ReflectionTestUtils.setField(filter, "apiPrefix", "/api");
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "ipCapacity", 3);
+        ReflectionTestUtils.setField(filter, "ipRefillPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(filter, "emailCapacity", 2);
+        ReflectionTestUtils.setField(filter, "emailRefillPeriod", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(filter, "maxKeys", 1000);
+        ReflectionTestUtils.setField(filter, "maxBodySize", 64);
+    }
+
+    private static MockHttpServletRequest login(String ip, String email) {
+        var request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContent("{\"email\":\"%s\"}".formatted(email).getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest withLength(long contentLength, byte[] content) {
+        var request = new MockHttpServletRequest("POST", "/api/auth/register") {
+            @Override
+            public long getContentLengthLong() {
+                return contentLength;
+            }
+        };
+        request.setRemoteAddr("10.0.0.1");
+        request.setContent(content);
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void limitsEachIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(login("10.0.0.1", "user" + i + "@x.com")).getStatus()).isEqualTo(200);
+        }
+
+        var rejected = send(login("10.0.0.1", "other@x.com"));
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(send(login("10.0.0.2", "other@x.com")).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("auth.rate_limit.rejections").tag("key", "ip").counter()
+                       .count()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsEachEmailAcrossIps() throws Exception {
+        assertThat(send(login("10.0.0.1", "a@x.com")).getStatus()).isEqualTo(200);
+        assertThat(send(login("10.0.0.2", " A@X.com")).getStatus()).isEqualTo(200);
+
+        assertThat(send(login("10.0.0.3", "a@x.com")).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void refillsOverTime() throws Exception {
+        ReflectionTestUtils.setField(filter, "emailRefillPeriod", Duration.ofMillis(200));
+        send(login("10.0.0.1", "a@x.com"));
+        send(login("10.0.0.2", "a@x.com"));
+        assertThat(send(login("10.0.0.3", "a@x.com")).getStatus()).isEqualTo(429);
+
+        Thread.sleep(150);
+
+        assertThat(send(login("10.0.0.4", "a@x.com")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void passesTheBodyOn() throws Exception {
+        var request = login("10.0.0.1", "a@x.com");
+        var chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        var forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(forwarded.getReader().readLine()).isEqualTo("{\"email\":\"a@x.com\"}");
+    }
+
+    @Test
+    void readListenerSeesTheWholeBody() throws Exception {
+        var chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", "a@x.com"), new MockHttpServletResponse(), chain);
+        ServletInputStream input = ((HttpServletRequest) chain.getRequest()).getInputStream();
+
+        var body = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                body.writeBytes(input.readAllBytes());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("{\"email\":\"a@x.com\"}");
+    }
+
+    @Test
+    void refusesLargeBodies() throws Exception {
+        // Declared up front, refused before reading anything
+        assertThat(send(withLength(100_000, new byte[0])).getStatus()).isEqualTo(413);
+
+        // Chunked, no length up front
+        var chain = new MockFilterChain();
+        var response = new MockHttpServletResponse();
+        filter.doFilter(withLength(-1, new byte[65]), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(send(withLength(-1, new byte[64])).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ignoresOtherRequests() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            var request = new MockHttpServletRequest("GET", "/api/auth/login");
+            request.setRemoteAddr("10.0.0.1");
+            assertThat(send(request).getStatus()).isEqualTo(200);
+        }
+    }
+
+}
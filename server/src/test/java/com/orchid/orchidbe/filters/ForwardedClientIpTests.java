@@ -0,0 +1,50 @@
+package com.orchid.orchidbe.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Behind the load balancer every request comes from the proxy, the per-IP limit must still see
+ * the client address it forwards.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:forwarded;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.ip-capacity=2",
+    "security.rate-limit.email-capacity=100"
+})
+@ActiveProfiles("h2")
+class ForwardedClientIpTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private HttpStatusCode login(String forwardedFor) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return restTemplate.postForEntity(
+            "/api/auth/login",
+            new HttpEntity<>("{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}", headers),
+            String.class).getStatusCode();
+    }
+
+    @Test
+    void eachForwardedClientHasItsOwnBucket() {
+        assertThat(login("203.0.113.1").value()).isNotEqualTo(429);
+        assertThat(login("203.0.113.1").value()).isNotEqualTo(429);
+        assertThat(login("203.0.113.1").value()).isEqualTo(429);
+
+        assertThat(login("203.0.113.2").value()).isNotEqualTo(429);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.orchid.orchidbe.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.components.VerifiedJwt;
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+class JwtTokenFilterTests {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String EMAIL = "manager@gmail.com";
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final JwtTokenUtils jwtTokenUtils = mock(JwtTokenUtils.class);
+    private final JwtTokenFilter filter = new JwtTokenFilter(userDetailsService, jwtTokenUtils);
+
+    private MockHttpServletRequest request;
+    // The chain runs before the context is cleared, so it records what the request saw
+    private final AtomicReference<Authentication> seen = new AtomicReference<>();
+    private final MockFilterChain chain = new MockFilterChain() {
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/orders/me/orders");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        when(jwtTokenUtils.validateToken(any(VerifiedJwt.class), any(Account.class)))
+            .thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void verifiesTo(RoleName role) {
+        Claims claims = Jwts.claims().setSubject(EMAIL);
+        claims.put("userId", 42L);
+        if (role != null) {
+            claims.put("role", role.name());
+        }
+        when(jwtTokenUtils.verify(TOKEN)).thenReturn(new VerifiedJwt(TOKEN, claims));
+    }
+
+    @Test
+    void buildsTheStatelessPrincipalFromTheClaims() throws Exception {
+        when(jwtTokenUtils.isStateless()).thenReturn(true);
+        verifiesTo(RoleName.MANAGER);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Account principal = (Account) seen.get().getPrincipal();
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getEmail()).isEqualTo(EMAIL);
+        assertThat(principal.getRole().getName()).isEqualTo(RoleName.MANAGER);
+        assertThat(List.copyOf(seen.get().getAuthorities()))
+            .isEqualTo(RoleName.MANAGER.authorities());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void parsesTheTokenOnceAndSharesItWithTheRequest() throws Exception {
+        when(jwtTokenUtils.isStateless()).thenReturn(true);
+        verifiesTo(RoleName.MANAGER);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(jwtTokenUtils, times(1)).verify(anyString());
+        verify(jwtTokenUtils, never()).extractEmail(anyString());
+        verify(jwtTokenUtils, never()).validateToken(anyString(), any(Account.class));
+        var shared = (VerifiedJwt) request.getAttribute(VerifiedJwt.REQUEST_ATTRIBUTE);
+        assertThat(shared.token()).isEqualTo(TOKEN);
+        verify(jwtTokenUtils).validateToken(shared, (Account) seen.get().getPrincipal());
+    }
+
+    @Test
+    void loadsTheAccountForATokenWithoutARole() throws Exception {
+        when(jwtTokenUtils.isStateless()).thenReturn(true);
+        verifiesTo(null);
+        Account account = Account.builder().id(42L).email(EMAIL)
+            .role(new Role(RoleName.USER)).build();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(account);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(seen.get().getPrincipal()).isSameAs(account);
+    }
+
+    @Test
+    void loadsTheAccountWhenNotStateless() throws Exception {
+        verifiesTo(RoleName.MANAGER);
+        Account account = Account.builder().id(42L).email(EMAIL)
+            .role(new Role(RoleName.USER)).build();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(account);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(seen.get().getPrincipal()).isSameAs(account);
+        verify(jwtTokenUtils, times(1)).verify(anyString());
+    }
+
+}
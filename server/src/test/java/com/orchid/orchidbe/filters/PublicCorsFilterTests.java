@@ -0,0 +1,144 @@
+package com.orchid.orchidbe.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+
+class PublicCorsFilterTests {
+
+    private static final String ALLOWED = "http://localhost:5173";
+    private static final String VARY =
+        "Origin, Access-Control-Request-Method, Access-Control-Request-Headers";
+
+    private PublicCorsFilter filter;
+    private MockFilterChain chain;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        var configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of(ALLOWED));
+        configuration.setAllowedMethods(List.of("GET", "HEAD", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(List.of("X-Total-Count"));
+        configuration.setAllowCredentials(true);
+        configuration.setMaxAge(3600L);
+        filter = new PublicCorsFilter(configuration);
+        chain = new MockFilterChain();
+        response = new MockHttpServletResponse();
+    }
+
+    private static MockHttpServletRequest get(String origin) {
+        var request = new MockHttpServletRequest("GET", "/api/public/orchids");
+        request.setScheme("https");
+        request.setServerName("orchid-api.example.com");
+        request.setServerPort(443);
+        if (origin != null) {
+            request.addHeader(HttpHeaders.ORIGIN, origin);
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest preflight(String method, String headers) {
+        var request = get(ALLOWED);
+        request.setMethod("OPTIONS");
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, method);
+        if (headers != null) {
+            request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, headers);
+        }
+        return request;
+    }
+
+    private void assertPassedWithoutCors() {
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+    }
+
+    private void assertRejected() {
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isNull();
+    }
+
+    @Test
+    void variesOnOriginEvenWithoutOne() throws Exception {
+        filter.doFilter(get(null), response, chain);
+
+        assertPassedWithoutCors();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(VARY);
+    }
+
+    @Test
+    void addsCorsHeadersForAnAllowedOrigin() throws Exception {
+        filter.doFilter(get(ALLOWED), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo(ALLOWED);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS))
+            .isEqualTo("true");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS))
+            .isEqualTo("X-Total-Count");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(VARY);
+    }
+
+    @Test
+    void rejectsAnOriginOutsideTheList() throws Exception {
+        filter.doFilter(get("https://evil.example.com"), response, chain);
+
+        assertRejected();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(VARY);
+    }
+
+    @Test
+    void letsSameOriginRequestsThrough() throws Exception {
+        filter.doFilter(get("https://orchid-api.example.com"), response, chain);
+
+        assertPassedWithoutCors();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(VARY);
+    }
+
+    @Test
+    void answersAnAllowedPreflight() throws Exception {
+        filter.doFilter(preflight("GET", "authorization, Content-Type"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo(ALLOWED);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS))
+            .isEqualTo("GET,HEAD,OPTIONS");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS))
+            .isEqualTo("Authorization,Content-Type");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE)).isEqualTo("3600");
+    }
+
+    @Test
+    void answersAPreflightWithoutRequestedHeaders() throws Exception {
+        filter.doFilter(preflight("HEAD", null), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo(ALLOWED);
+    }
+
+    @Test
+    void rejectsAPreflightForADisallowedMethod() throws Exception {
+        filter.doFilter(preflight("DELETE", null), response, chain);
+
+        assertRejected();
+    }
+
+    @Test
+    void rejectsAPreflightForADisallowedHeader() throws Exception {
+        filter.doFilter(preflight("GET", "Content-Type, X-Debug"), response, chain);
+
+        assertRejected();
+    }
+
+}
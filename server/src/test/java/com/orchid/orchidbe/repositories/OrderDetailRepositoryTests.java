@@ -0,0 +1,70 @@
+package com.orchid.orchidbe.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orchid.orchidbe.domain.order.Order;
+import com.orchid.orchidbe.domain.order.Order.OrderStatus;
+import com.orchid.orchidbe.domain.order.OrderDetail;
+import com.orchid.orchidbe.domain.order.OrderDetailDTO.OrchidSales;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@Transactional
+class OrderDetailRepositoryTests {
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrchidRepository orchidRepository;
+
+    private Map<Long, Long> unitsSold(OrderStatus status) {
+        return orderDetailRepository.findUnitsSoldPerOrchid(status).stream()
+            .collect(Collectors.toMap(OrchidSales::orchidId, OrchidSales::quantity));
+    }
+
+    private void order(OrderStatus status, Long orchidId, int quantity) {
+        Order order = orderRepository.save(Order.builder()
+                                               .totalAmount(10.0 * quantity)
+                                               .orderDate(new Date())
+                                               .orderStatus(status)
+                                               .build());
+        orderDetailRepository.save(OrderDetail.builder()
+                                       .price(10.0)
+                                       .quantity(quantity)
+                                       .orchidId(orchidRepository.getReferenceById(orchidId))
+                                       .order(order)
+                                       .build());
+    }
+
+    @Test
+    void countsCompletedOrdersOnly() {
+        Long orchidId = orchidRepository.findAll().get(0).getId();
+        long before = unitsSold(OrderStatus.COMPLETED).getOrDefault(orchidId, 0L);
+
+        order(OrderStatus.COMPLETED, orchidId, 3);
+        order(OrderStatus.COMPLETED, orchidId, 2);
+        order(OrderStatus.CANCELLED, orchidId, 1000);
+        order(OrderStatus.PENDING, orchidId, 100);
+
+        assertThat(unitsSold(OrderStatus.COMPLETED)).containsEntry(orchidId, before + 5);
+        assertThat(unitsSold(OrderStatus.CANCELLED).get(orchidId)).isGreaterThanOrEqualTo(1000);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.orchid.orchidbe.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import com.orchid.orchidbe.domain.token.Token;
+import com.orchid.orchidbe.domain.token.TokenSweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class TokenRepositoryTests {
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        account = accountRepository.save(Account.builder()
+            .name("Sweep")
+            .email("sweep-" + UUID.randomUUID() + "@example.com")
+            .password("unused")
+            .role(roleRepository.findByName(RoleName.USER).orElseThrow())
+            .build());
+    }
+
+    private Long session(boolean revoked, LocalDateTime refreshExpiresAt) {
+        return tokenRepository.save(Token.builder()
+                                        .account(account)
+                                        .token("token-" + UUID.randomUUID())
+                                        .refreshToken(UUID.randomUUID().toString())
+                                        .tokenType("Bearer")
+                                        .expirationDate(LocalDateTime.now().plusHours(1))
+                                        .refreshExpirationDate(refreshExpiresAt)
+                                        .revoked(revoked)
+                                        .expired(false)
+                                        .isMobile(false)
+                                        .build()).getId();
+    }
+
+    private List<Long> sessions() {
+        return tokenRepository.findAll().stream()
+            .filter(token -> token.getAccount().getId().equals(account.getId()))
+            .map(Token::getId)
+            .sorted()
+            .toList();
+    }
+
+    @Test
+    void deletesAtMostOneBatchOfExpiredOrRevokedSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        // Batches go in id order across accounts, clear what earlier tests left behind
+        int cleared;
+        do {
+            cleared = tokenRepository.deleteExpiredBatch(now, 1000);
+        } while (cleared > 0);
+        for (int i = 0; i < 3; i++) {
+            session(true, now.plusDays(1));
+            session(false, now.minusMinutes(1));
+        }
+        Long live = session(false, now.plusDays(1));
+
+        assertThat(tokenRepository.deleteExpiredBatch(now, 2)).isEqualTo(2);
+        assertThat(sessions()).hasSize(5).contains(live);
+    }
+
+    @Test
+    void sweeperDeletesEveryExpiredSessionInSmallBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> live = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            if (i % 2 == 0) {
+                session(true, now.plusDays(1));
+            } else {
+                session(false, now.minusMinutes(1));
+            }
+            live.add(session(false, now.plusDays(1)));
+        }
+        var sweeper = new TokenSweeper(tokenRepository, jdbcTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        ReflectionTestUtils.setField(sweeper, "maxBatches", 1000);
+        ReflectionTestUtils.setField(sweeper, "batchPauseMillis", 0L);
+        ReflectionTestUtils.invokeMethod(sweeper, "init");
+
+        sweeper.sweep();
+
+        assertThat(sessions()).containsExactlyElementsOf(live);
+        assertThat(tokenRepository.deleteExpiredBatch(LocalDateTime.now(), 2)).isZero();
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.orchid.orchidbe.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+class BoundedPasswordEncoderTests {
+
+    // Holds the single hashing thread until released
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+
+    }
+
+    private final BlockingEncoder delegate = new BlockingEncoder();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // One thread and no queue: a second hash while one runs has nowhere to go
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+
+    // A small queue as in production, without it a call right after another can find the worker
+    // not yet waiting for work and be rejected
+    private final ThreadPoolExecutor queued = new ThreadPoolExecutor(
+        1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(4));
+
+    private BoundedPasswordEncoder encoder(Duration timeout) {
+        return new BoundedPasswordEncoder(delegate, executor, timeout, meterRegistry);
+    }
+
+    private double rejections() {
+        return meterRegistry.counter("auth.password.rejections").count();
+    }
+
+    private static void assertServiceUnavailable(Throwable thrown) {
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) thrown).getStatusCode())
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        executor.shutdownNow();
+        queued.shutdownNow();
+    }
+
+    @Test
+    void hashesOnTheExecutor() {
+        delegate.release.countDown();
+        var encoder = new BoundedPasswordEncoder(delegate, queued, Duration.ofSeconds(5),
+                                                 meterRegistry);
+
+        assertThat(encoder.encode("secret")).isEqualTo("hashed:secret");
+        assertThat(encoder.matches("secret", "hashed:secret")).isTrue();
+        assertThat(encoder.matches("wrong", "hashed:secret")).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "encode").timer()
+                       .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer()
+                       .count()).isEqualTo(2);
+        assertThat(rejections()).isZero();
+    }
+
+    @Test
+    void rejectsRightAwayWhenTheExecutorIsSaturated() throws Exception {
+        var encoder = encoder(Duration.ofSeconds(30));
+        var first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(delegate.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long startedAt = System.nanoTime();
+        Throwable thrown = catchThrowable(() -> encoder.matches("second", "hashed:second"));
+
+        assertServiceUnavailable(thrown);
+        // Turned away without waiting for the running hash or the timeout
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+            .isLessThan(Duration.ofSeconds(5));
+        assertThat(rejections()).isEqualTo(1);
+
+        delegate.release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+    }
+
+    @Test
+    void givesUpOnAHashOverTheTimeLimit() throws Exception {
+        var encoder = encoder(Duration.ofMillis(200));
+
+        long startedAt = System.nanoTime();
+        Throwable thrown = catchThrowable(() -> encoder.encode("slow"));
+
+        assertServiceUnavailable(thrown);
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+            .isGreaterThanOrEqualTo(Duration.ofMillis(200))
+            .isLessThan(Duration.ofSeconds(5));
+        assertThat(rejections()).isEqualTo(1);
+        // The abandoned hash is interrupted, so the thread is free for the next request
+        assertThat(delegate.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void passesDelegateFailuresThrough() {
+        var failing = new BoundedPasswordEncoder(new BlockingEncoder() {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("Encoded password does not look like BCrypt");
+            }
+        }, queued, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> failing.matches("secret", "plain"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("BCrypt");
+    }
+
+}
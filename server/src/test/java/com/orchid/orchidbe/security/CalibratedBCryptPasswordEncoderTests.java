@@ -0,0 +1,59 @@
+package com.orchid.orchidbe.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class CalibratedBCryptPasswordEncoderTests {
+
+    private static String hash(int strength) {
+        return new BCryptPasswordEncoder(strength).encode("secret");
+    }
+
+    @Test
+    void upgradesOnlyBelowMinimum() {
+        var encoder = new CalibratedBCryptPasswordEncoder(6, 5);
+
+        assertThat(encoder.upgradeEncoding(hash(4))).isTrue();
+        assertThat(encoder.upgradeEncoding(hash(5))).isFalse();
+        assertThat(encoder.upgradeEncoding(hash(6))).isFalse();
+        // Hashed by a node that calibrated higher, never downgraded
+        assertThat(encoder.upgradeEncoding(hash(7))).isFalse();
+    }
+
+    @Test
+    void nodesWithDifferentCostsAgree() {
+        var slow = new CalibratedBCryptPasswordEncoder(5, 4);
+        var fast = new CalibratedBCryptPasswordEncoder(7, 4);
+
+        assertThat(slow.upgradeEncoding(fast.encode("secret"))).isFalse();
+        assertThat(fast.upgradeEncoding(slow.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void ignoresNonBCryptValues() {
+        var encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("plain")).isFalse();
+    }
+
+    @Test
+    void calibrationKeepsTheConfiguredMinimum() {
+        var encoder = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(1), 5, 6);
+
+        assertThat(encoder.getMinimumStrength()).isEqualTo(5);
+        assertThat(encoder.getStrength()).isBetween(5, 6);
+        assertThat(encoder.matches("secret", encoder.encode("secret"))).isTrue();
+    }
+
+    @Test
+    void rejectsMinimumAboveStrength() {
+        assertThatThrownBy(() -> new CalibratedBCryptPasswordEncoder(5, 6))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
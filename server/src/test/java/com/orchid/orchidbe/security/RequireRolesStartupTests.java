@@ -0,0 +1,57 @@
+package com.orchid.orchidbe.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.orchid.orchidbe.domain.orchid.OrchidController;
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Every {@code @RequireRoles} endpoint is compiled while the context starts, the first request
+ * to one only reads the mask.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:security;DB_CLOSE_DELAY=-1",
+    "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class RequireRolesStartupTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoleAuthorizationManager roleAuthorizationManager;
+
+    @SuppressWarnings("unchecked")
+    private Map<Method, Integer> compiled() {
+        return (Map<Method, Integer>) ReflectionTestUtils.getField(roleAuthorizationManager,
+                                                                   "requiredMasks");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void compilesControllerMethodsBeforeTheFirstRequest() throws Exception {
+        Method export = OrchidController.class.getMethod("exportOrchids", String.class,
+                                                         HttpServletRequest.class);
+        assertThat(compiled()).containsKey(export);
+        int before = compiled().size();
+
+        mockMvc.perform(get("/api/orchids/export")).andExpect(status().isForbidden());
+
+        assertThat(compiled()).hasSize(before);
+    }
+
+}
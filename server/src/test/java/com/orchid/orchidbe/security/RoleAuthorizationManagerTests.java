@@ -0,0 +1,174 @@
+package com.orchid.orchidbe.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.orchid.orchidbe.annotations.auth.RequireRoles;
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RoleAuthorizationManagerTests {
+
+    static class Endpoints {
+
+        @RequireRoles({RoleName.ADMIN, RoleName.MANAGER})
+        public void manage() {
+        }
+
+        public void unannotated() {
+        }
+
+    }
+
+    @RequireRoles(RoleName.STAFF)
+    static class StaffEndpoints {
+
+        public void inherited() {
+        }
+
+        @RequireRoles(RoleName.USER)
+        public void overridden() {
+        }
+
+    }
+
+    static class NoRoles {
+
+        @RequireRoles({})
+        public void nobody() {
+        }
+
+    }
+
+    private final RoleAuthorizationManager manager = new RoleAuthorizationManager();
+
+    @SuppressWarnings("unchecked")
+    private Map<Method, Integer> compiled() {
+        return (Map<Method, Integer>) ReflectionTestUtils.getField(manager, "requiredMasks");
+    }
+
+    private static MethodInvocation invocation(Object target, String method) throws Exception {
+        return new SimpleMethodInvocation(target, target.getClass().getMethod(method));
+    }
+
+    private static Authentication withRoles(String... authorities) {
+        var authentication = new TestingAuthenticationToken("user", null, authorities);
+        authentication.setAuthenticated(true);
+        return authentication;
+    }
+
+    private boolean granted(Authentication authentication, MethodInvocation invocation) {
+        return manager.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    @Test
+    void grantsAnyListedRole() throws Exception {
+        var manage = invocation(new Endpoints(), "manage");
+
+        assertThat(granted(withRoles("ROLE_ADMIN"), manage)).isTrue();
+        assertThat(granted(withRoles("ROLE_MANAGER"), manage)).isTrue();
+        assertThat(granted(withRoles("ROLE_USER"), manage)).isFalse();
+        assertThat(granted(withRoles("ROLE_USER", "ROLE_MANAGER"), manage)).isTrue();
+    }
+
+    @Test
+    void readsTheRoleOffOurOwnPrincipal() throws Exception {
+        var account = Account.builder()
+            .email("manager@gmail.com")
+            .role(Role.builder().name(RoleName.MANAGER).build())
+            .build();
+        // No authorities on the token, the mask has to come from the account itself
+        var authentication = new UsernamePasswordAuthenticationToken(account, null, List.of());
+
+        assertThat(granted(authentication, invocation(new Endpoints(), "manage"))).isTrue();
+        assertThat(granted(authentication, invocation(new StaffEndpoints(), "inherited")))
+            .isFalse();
+    }
+
+    @Test
+    void ignoresAuthoritiesThatAreNotRoles() throws Exception {
+        var manage = invocation(new Endpoints(), "manage");
+
+        assertThat(granted(withRoles("ADMIN", "SCOPE_admin", "ROLE_admin"), manage)).isFalse();
+        assertThat(granted(withRoles("SCOPE_admin", "ROLE_ADMIN"), manage)).isTrue();
+    }
+
+    @Test
+    void deniesAnonymousAndUnauthenticatedCallers() throws Exception {
+        var manage = invocation(new Endpoints(), "manage");
+        var anonymous = new AnonymousAuthenticationToken(
+            "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        var unauthenticated = new TestingAuthenticationToken("user", null, "ROLE_ADMIN");
+        unauthenticated.setAuthenticated(false);
+
+        assertThat(granted(anonymous, manage)).isFalse();
+        assertThat(granted(unauthenticated, manage)).isFalse();
+        assertThat(granted(null, manage)).isFalse();
+    }
+
+    @Test
+    void fallsBackToTheClassAnnotation() throws Exception {
+        var target = new StaffEndpoints();
+
+        assertThat(granted(withRoles("ROLE_STAFF"), invocation(target, "inherited"))).isTrue();
+        assertThat(granted(withRoles("ROLE_STAFF"), invocation(target, "overridden"))).isFalse();
+        assertThat(granted(withRoles("ROLE_USER"), invocation(target, "overridden"))).isTrue();
+    }
+
+    @Test
+    void rejectsMethodsWithoutRequireRoles() throws Exception {
+        var unannotated = invocation(new Endpoints(), "unannotated");
+
+        assertThatThrownBy(() -> granted(withRoles("ROLE_ADMIN"), unannotated))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("unannotated");
+    }
+
+    @Test
+    void compilesEveryAnnotatedBeanMethodAtStartup() throws Exception {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("endpoints", new Endpoints());
+        beanFactory.registerSingleton("staffEndpoints", new StaffEndpoints());
+        beanFactory.registerSingleton("other", "not an endpoint");
+        manager.setBeanFactory(beanFactory);
+
+        manager.afterSingletonsInstantiated();
+
+        assertThat(compiled()).containsOnlyKeys(
+            Endpoints.class.getMethod("manage"),
+            StaffEndpoints.class.getMethod("inherited"),
+            StaffEndpoints.class.getMethod("overridden"));
+        assertThat(compiled()).containsEntry(
+            Endpoints.class.getMethod("manage"), RoleName.ADMIN.mask() | RoleName.MANAGER.mask());
+
+        // Calls only read what was compiled
+        granted(withRoles("ROLE_STAFF"), invocation(new StaffEndpoints(), "inherited"));
+        assertThat(compiled()).hasSize(3);
+    }
+
+    @Test
+    void failsStartupOnRequireRolesWithoutRoles() {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("noRoles", new NoRoles());
+        manager.setBeanFactory(beanFactory);
+
+        assertThatThrownBy(manager::afterSingletonsInstantiated)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("nobody");
+    }
+
+}
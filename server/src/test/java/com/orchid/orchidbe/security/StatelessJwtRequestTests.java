@@ -0,0 +1,140 @@
+package com.orchid.orchidbe.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.orchid.orchidbe.components.JwtKeyRing;
+import com.orchid.orchidbe.components.JwtTokenUtils;
+import com.orchid.orchidbe.domain.account.Account;
+import com.orchid.orchidbe.domain.role.Role.RoleName;
+import com.orchid.orchidbe.repositories.AccountRepository;
+import com.orchid.orchidbe.repositories.RoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * With {@code jwt.stateless} on, an authenticated request trusts the id and role signed into the
+ * token instead of reading the account, and the token is parsed once however many components
+ * read it during the request.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:stateless;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "security.rate-limit.enabled=false",
+    "jwt.stateless=true"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class StatelessJwtRequestTests {
+
+    private static final String PASSWORD = "Secret123^^";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenUtils jwtTokenUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private JwtKeyRing keyRing;
+
+    private Account account;
+    private String accessToken;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        account = accountRepository.save(Account.builder()
+            .name("Stateless")
+            .email("stateless-" + UUID.randomUUID() + "@example.com")
+            .password(passwordEncoder.encode(PASSWORD))
+            .role(roleRepository.findByName(RoleName.USER).orElseThrow())
+            .build());
+        String body = mockMvc.perform(post("/api/auth/login")
+                                          .contentType(MediaType.APPLICATION_JSON)
+                                          .content("""
+                                              {"email": "%s", "password": "%s"}"""
+                                                       .formatted(account.getEmail(), PASSWORD)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        accessToken = JsonPath.read(body, "$.data.token.access_token");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        clearInvocations(keyRing);
+    }
+
+    private long accountLoads() {
+        return statistics.getEntityStatistics(Account.class.getName()).getLoadCount();
+    }
+
+    @Test
+    void authenticatesFromTheClaimsWithoutLoadingTheAccount() throws Exception {
+        // The principal's id picks the orders, a new account has none
+        mockMvc.perform(get("/api/orders/me/orders")
+                            .header("Authorization", "Bearer " + accessToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data").isEmpty());
+
+        assertThat(accountLoads()).isZero();
+    }
+
+    @Test
+    void loadsTheAccountWhenStatelessIsOff() throws Exception {
+        ReflectionTestUtils.setField(jwtTokenUtils, "stateless", false);
+        try {
+            mockMvc.perform(get("/api/orders/me/orders")
+                                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+        } finally {
+            ReflectionTestUtils.setField(jwtTokenUtils, "stateless", true);
+        }
+
+        assertThat(accountLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void parsesTheTokenOncePerRequest() throws Exception {
+        // The filter and the controller both read the claims of this request
+        mockMvc.perform(get("/api/accounts/me")
+                            .header("Authorization", "Bearer " + accessToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.email").value(account.getEmail()));
+
+        verify(keyRing, times(1)).getParser();
+    }
+
+}